@@ -3,11 +3,16 @@
  * adventofcode.AdventOfCode
  */
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 import exception.AnswerNotAvailableException;
+import utils.SamplingProfiler;
 
 /**
  * https://adventofcode.com/2020/
@@ -16,12 +21,60 @@ import exception.AnswerNotAvailableException;
  */
 public class AdventOfCode
 {
+    /*
+     * Opt-in profiling: run with '-Daoc.profile=<output directory>' to write a collapsed stack file per day
+     * (optionally with '-Daoc.profile.interval=<milliseconds>' to change the sample rate)
+     */
+    public static final String PROFILE_PROPERTY = "aoc.profile";
+    public static final String PROFILE_INTERVAL_PROPERTY = "aoc.profile.interval";
+    public static final long DEFAULT_PROFILE_INTERVAL = 5;
+
+    // Command line arguments to run the tools instead of the menu
+    public static final String SCALING_COMMAND = "scaling";
+    public static final String WATCH_COMMAND = "watch";
+    public static final String REPORT_COMMAND = "report";
+    public static final String STREAM_COMMAND = "stream";
+    public static final String PASSWORDS_COMMAND = "passwords";
+    public static final String TREES_COMMAND = "trees";
+
     final static Map<String, String> selectionMap = new LinkedHashMap<>();
 
     public static void main( final String[] args )
     {
-        buildOptions();
-        menu();
+        final String command = args.length > 0 ? args[ 0 ] : "";
+        final List<String> arguments = Arrays.asList( args ).subList( Math.min( 1, args.length ), args.length );
+        switch ( command )
+        {
+            case SCALING_COMMAND:
+                // e.g. 'scaling 1 7 9' to report on just those days
+                ScalingHarness.run( arguments );
+                break;
+            case REPORT_COMMAND:
+                // e.g. 'report 1 2 3' to report on just those days
+                PerformanceReport.run( arguments );
+                break;
+            case STREAM_COMMAND:
+                // e.g. 'tail -f expenses | java AdventOfCode stream 2020'
+                DayCommands.stream( arguments );
+                break;
+            case PASSWORDS_COMMAND:
+                // e.g. 'passwords audit.log' to validate a password database other than the Day 2 input, or
+                // 'passwords --follow audit.log' to keep validating the lines appended to it
+                DayCommands.passwords( arguments );
+                break;
+            case TREES_COMMAND:
+                // e.g. 'trees big-map' (or 'cat big-map | java AdventOfCode trees') to count the part 2 slopes' trees
+                // or 'trees --search 100 10 big-map' to find the slopes up to right 100, down 10 with the fewest/most
+                DayCommands.trees( arguments );
+                break;
+            case WATCH_COMMAND:
+                // e.g. 'watch inputs' to watch a directory other than the resources directory
+                WatchMode.run( arguments );
+                break;
+            default:
+                buildOptions();
+                menu();
+        }
     }
 
     /**
@@ -104,55 +157,14 @@ public class AdventOfCode
     {
         try
         {
-            switch ( selection )
+            final String profileDirectory = System.getProperty( PROFILE_PROPERTY );
+            if ( profileDirectory == null || selection.equals( "quit" ) )
             {
-                case "1":
-                    new Day1();
-                    break;
-                case "2":
-                    new Day2();
-                    break;
-                case "3":
-                    new Day3();
-                    break;
-                case "4":
-                    new Day4();
-                    break;
-                case "5":
-                    new Day5();
-                    break;
-                case "6":
-                    new Day6();
-                    break;
-                case "7":
-                    new Day7();
-                    break;
-                case "8":
-                    new Day8();
-                    break;
-                case "9":
-                    new Day9();
-                    break;
-                case "10":
-                    new Day10();
-                    break;
-                case "11":
-                    new Day11();
-                    break;
-                case "12":
-                    new Day12();
-                    break;
-                case "13":
-                    new Day13();
-                    break;
-                case "14":
-                    new Day14();
-                    break;
-                case "15":
-                    new Day15();
-                    break;
-                default:
-                    throw new AnswerNotAvailableException();
+                runDay( selection );
+            }
+            else
+            {
+                profileDay( selection, profileDirectory );
             }
         }
         catch ( final AnswerNotAvailableException e )
@@ -160,4 +172,103 @@ public class AdventOfCode
             System.out.println( "No answer available for this question!" );
         }
     }
+
+    /**
+     * Runs the chosen day while sampling this thread, then writes out the collapsed stacks (for a flame graph)
+     * and a short summary of the hottest methods
+     *
+     * @param selection        the menu option selected
+     * @param profileDirectory the directory to write the collapsed stack file to
+     */
+    private static void profileDay( final String selection, final String profileDirectory )
+            throws AnswerNotAvailableException
+    {
+        final long interval = Long.getLong( PROFILE_INTERVAL_PROPERTY, DEFAULT_PROFILE_INTERVAL );
+        final SamplingProfiler profiler = new SamplingProfiler( Thread.currentThread(), interval );
+
+        profiler.start();
+        try
+        {
+            runDay( selection );
+        }
+        finally
+        {
+            profiler.stop();
+
+            final String fileName = "day" + selection + SamplingProfiler.COLLAPSED_FILE_EXTENSION;
+            try
+            {
+                profiler.writeCollapsedStacks( Paths.get( profileDirectory, fileName ) );
+                System.out.println( "Profile: " + profiler.getSampleCount() + " samples written to "
+                        + Paths.get( profileDirectory, fileName ) );
+                for ( final Map.Entry<String, Integer> hotMethod : profiler.getHotMethods( 5 ) )
+                {
+                    System.out.println( "  " + hotMethod.getValue() + "\t" + hotMethod.getKey() );
+                }
+            }
+            catch ( final IOException e )
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Runs the solution for the chosen menu option
+     *
+     * @param selection the menu option selected
+     */
+    static void runDay( final String selection ) throws AnswerNotAvailableException
+    {
+        switch ( selection )
+        {
+            case "1":
+                new Day1();
+                break;
+            case "2":
+                new Day2();
+                break;
+            case "3":
+                new Day3();
+                break;
+            case "4":
+                new Day4();
+                break;
+            case "5":
+                new Day5();
+                break;
+            case "6":
+                new Day6();
+                break;
+            case "7":
+                new Day7();
+                break;
+            case "8":
+                new Day8();
+                break;
+            case "9":
+                new Day9();
+                break;
+            case "10":
+                new Day10();
+                break;
+            case "11":
+                new Day11();
+                break;
+            case "12":
+                new Day12();
+                break;
+            case "13":
+                new Day13();
+                break;
+            case "14":
+                new Day14();
+                break;
+            case "15":
+                new Day15();
+                break;
+            default:
+                throw new AnswerNotAvailableException();
+        }
+    }
 }
@@ -5,13 +5,22 @@
 
 import static constants.Constants.*;
 
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 /**
  * Advent of Code 2020
@@ -53,6 +62,10 @@ import utils.AOCUtils;
  */
 public class Day1
 {
+    public static final int TARGET_SUM = 2020;
+
+    // Reports at least this big have their triples searched for in parallel
+    public static final int PARALLEL_THRESHOLD = 10_000;
 
     /**
      * Constructor
@@ -62,8 +75,8 @@ public class Day1
         // Check the logic with the examples before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1() );
-        System.out.println( THE_ANSWER_IS_PT2 + part2() );
+        Answers.print( 1, this::part1 );
+        Answers.print( 2, this::part2 );
     }
 
     /**
@@ -73,7 +86,7 @@ public class Day1
      * <p>
      * Answer: 974304
      */
-    private int part1() throws AnswerNotAvailableException
+    private long part1() throws AnswerNotAvailableException
     {
         return getAnswer( 1, getData() );
     }
@@ -95,7 +108,7 @@ public class Day1
      * <p>
      * Answer: 236430480
      */
-    private int part2() throws AnswerNotAvailableException
+    private long part2() throws AnswerNotAvailableException
     {
         return getAnswer( 2, getData() );
     }
@@ -103,59 +116,946 @@ public class Day1
     /**
      * Return the answer to the given part
      *
-     * @param part        the criteria switch depending on which question part
-     * @param integerList the data to check
+     * @param part    the criteria switch depending on which question part
+     * @param entries the data to check
+     */
+    private long getAnswer( final int part, final int[] entries ) throws AnswerNotAvailableException
+    {
+        if ( part == 1 )
+        {
+            return findPairProduct( entries, TARGET_SUM );
+        }
+        else if ( part == 2 )
+        {
+            // Sort a copy, so the caller's data is left as it was
+            final int[] sortedEntries = entries.clone();
+            Arrays.sort( sortedEntries );
+            if ( sortedEntries.length >= PARALLEL_THRESHOLD )
+            {
+                return product( findTripleInParallel( sortedEntries, TARGET_SUM, ForkJoinPool.commonPool() ) );
+            }
+            return product( findTuple( sortedEntries, TARGET_SUM, 3 ) );
+        }
+        throw new AnswerNotAvailableException();
+    }
+
+    /**
+     * Finds two different entries that sum to the target, and returns their product.
+     * <p>
+     * This is a single pass over the entries: each entry checks whether its 'partner' (target - entry) has already
+     * been seen, before being added to the set of seen entries itself. That makes it O(n), with no allocation
+     * beyond the set.
+     *
+     * @param entries the expense report entries
+     * @param target  the sum to find
+     * @return the product of the two entries
+     * @throws AnswerNotAvailableException if no two entries sum to the target
      */
-    private int getAnswer( final int part, final List<Integer> integerList ) throws AnswerNotAvailableException
+    static long findPairProduct( final int[] entries, final int target ) throws AnswerNotAvailableException
     {
-        // Loop through all the values
-        for ( final int i : integerList )
+        final IntHashSet seen = new IntHashSet( entries.length );
+        for ( final int entry : entries )
+        {
+            final int partner = target - entry;
+            if ( seen.contains( partner ) )
+            {
+                return ( long ) entry * partner;
+            }
+            seen.add( entry );
+        }
+        throw new AnswerNotAvailableException();
+    }
+
+    /**
+     * Finds k different entries that sum to the target.
+     * <p>
+     * The entries must be sorted. Each entry in turn is fixed as the first of the tuple, and the rest of the tuple
+     * is found (recursively) among the entries after it:
+     * - a pair is found with a two-pointer sweep inwards from both ends, so triples are O(n^2), and
+     * - a quadruple is found by meeting in the middle (see {@link #findQuadruple}), in O(n^2) time and memory.
+     * <p>
+     * So at worst the search is O(n^2) for k = 3 or 4, and each entry beyond 4 multiplies that by n: O(n^(k-2)).
+     * Only k = 4 is really tractable for big reports, as it needs room for up to n^2 / 2 pair sums. Beyond that it's
+     * quicker than the worst case suggests, but not by a guaranteed amount, as:
+     * - no value is kept more times than the tuple could use it, so a big report with a small range of values
+     * (e.g. 10^5 entries, all under 2020) only costs as much as k copies of its distinct values,
+     * - an entry whose value has already been tried at the same position is skipped, and
+     * - the search stops (or skips ahead) as soon as the smallest (or largest) possible sum can't reach the target.
+     *
+     * @param sortedEntries the expense report entries, in ascending order
+     * @param target        the sum to find
+     * @param k             how many entries should make up the sum (at least 2)
+     * @return the k entries, in ascending order
+     * @throws AnswerNotAvailableException if no k entries sum to the target
+     */
+    static int[] findTuple( final int[] sortedEntries, final long target, final int k )
+            throws AnswerNotAvailableException
+    {
+        if ( k < 2 )
+        {
+            throw new IllegalArgumentException( "A tuple needs at least 2 entries, not " + k );
+        }
+
+        // The pair sums of meeting in the middle grow with the square of the entries, so drop the spare copies first
+        final int[] entries = k >= 4 ? limitCopies( sortedEntries, k ) : sortedEntries;
+        final int[] tuple = new int[ k ];
+        if ( findTuple( entries, 0, target, k, tuple ) )
+        {
+            return tuple;
+        }
+        throw new AnswerNotAvailableException();
+    }
+
+    /**
+     * Finds the last k entries of the tuple among the sorted entries from the start index onwards
+     *
+     * @param sortedEntries the expense report entries, in ascending order
+     * @param start         the first index that can be used
+     * @param target        the sum still to find
+     * @param k             how many entries are still to find
+     * @param tuple         the tuple being built; the last k entries are filled in if found
+     * @return TRUE if the entries were found
+     */
+    private static boolean findTuple( final int[] sortedEntries,
+                                      final int start,
+                                      final long target,
+                                      final int k,
+                                      final int[] tuple )
+    {
+        final int end = sortedEntries.length - 1;
+        if ( end - start + 1 < k )
+        {
+            return false;
+        }
+
+        if ( k == 2 )
+        {
+            int low = start;
+            int high = end;
+            while ( low < high )
+            {
+                final long sum = ( long ) sortedEntries[ low ] + sortedEntries[ high ];
+                if ( sum == target )
+                {
+                    tuple[ tuple.length - 2 ] = sortedEntries[ low ];
+                    tuple[ tuple.length - 1 ] = sortedEntries[ high ];
+                    return true;
+                }
+                else if ( sum < target )
+                {
+                    low++;
+                }
+                else
+                {
+                    high--;
+                }
+            }
+            return false;
+        }
+
+        if ( k == 4 )
+        {
+            return findQuadruple( sortedEntries, start, target, tuple );
+        }
+
+        for ( int i = start; i <= end - k + 1; i++ )
         {
-            // Remove this value from the list (dodgy Java 'remove int from list' scenario!)
-            final List<Integer> others = new ArrayList<>( integerList );
-            others.removeAll( Collections.singletonList( i ) );
+            // The same value at the same position would find the same tuples
+            if ( i > start && sortedEntries[ i ] == sortedEntries[ i - 1 ] )
+            {
+                continue;
+            }
 
-            // Then loop through that list
-            for ( final int x : others )
+            // Every later entry is at least this big, so the sum can only overshoot from here on
+            if ( ( long ) sortedEntries[ i ] * k > target )
             {
+                break;
+            }
+
+            // Even the biggest entries can't bring this one up to the target
+            if ( sortedEntries[ i ] + ( long ) sortedEntries[ end ] * ( k - 1 ) < target )
+            {
+                continue;
+            }
+
+            tuple[ tuple.length - k ] = sortedEntries[ i ];
+            if ( findTuple( sortedEntries, i + 1, target - sortedEntries[ i ], k - 1, tuple ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                if ( part == 1 )
+    /**
+     * Finds the last 4 entries of the tuple among the sorted entries from the start index onwards, by meeting in
+     * the middle.
+     * <p>
+     * Each entry in turn is taken as the third of the four. Every pair of entries after it is checked against a
+     * table of the sums of the pairs of entries before it, so the four are always different entries (and in order).
+     * Then the pairs ending in this entry are added to the table for the entries after it. Every pair is looked up
+     * once and added once: O(n^2) time, and the table holds at most one pair per distinct sum.
+     *
+     * @param sortedEntries the expense report entries, in ascending order
+     * @param start         the first index that can be used
+     * @param target        the sum still to find
+     * @param tuple         the tuple being built; the last 4 entries are filled in if found
+     * @return TRUE if the entries were found
+     */
+    private static boolean findQuadruple( final int[] sortedEntries,
+                                          final int start,
+                                          final long target,
+                                          final int[] tuple )
+    {
+        final int end = sortedEntries.length - 1;
+        final PairSumTable earlierPairs = new PairSumTable( end - start + 1 );
+        for ( int third = start; third < end; third++ )
+        {
+            for ( int fourth = third + 1; fourth <= end && !earlierPairs.isEmpty(); fourth++ )
+            {
+                // The same value in the same place would look up the same sum
+                if ( fourth > third + 1 && sortedEntries[ fourth ] == sortedEntries[ fourth - 1 ] )
                 {
-                    // If sum matches, return the product
-                    if ( i + x == 2020 )
-                    {
-                        return i * x;
-                    }
+                    continue;
                 }
-                else if ( part == 2 )
+
+                final long pair = earlierPairs.get( target - sortedEntries[ third ] - sortedEntries[ fourth ] );
+                if ( pair != PairSumTable.NO_PAIR )
                 {
-                    // Remove this value from the list
-                    final List<Integer> others2 = new ArrayList<>( integerList );
-                    others.removeAll( Collections.singletonList( i ) );
+                    tuple[ tuple.length - 4 ] = sortedEntries[ PairSumTable.getFirst( pair ) ];
+                    tuple[ tuple.length - 3 ] = sortedEntries[ PairSumTable.getSecond( pair ) ];
+                    tuple[ tuple.length - 2 ] = sortedEntries[ third ];
+                    tuple[ tuple.length - 1 ] = sortedEntries[ fourth ];
+                    return true;
+                }
+            }
 
-                    // Then loop through the next list
-                    for ( final int y : others2 )
-                    {
-                        // If sum matches, return the product
-                        if ( i + x + y == 2020 )
-                        {
-                            return i * x * y;
-                        }
-                    }
+            for ( int first = start; first < third; first++ )
+            {
+                if ( first == start || sortedEntries[ first ] != sortedEntries[ first - 1 ] )
+                {
+                    earlierPairs.putIfAbsent( ( long ) sortedEntries[ first ] + sortedEntries[ third ], first, third );
                 }
             }
         }
-        throw new AnswerNotAvailableException();
+        return false;
+    }
+
+    /**
+     * @param sortedEntries the expense report entries, in ascending order
+     * @param copies        the most copies of any one value to keep
+     * @return the entries (still in ascending order), without any copies of a value beyond the given number
+     */
+    private static int[] limitCopies( final int[] sortedEntries, final int copies )
+    {
+        final int[] limited = new int[ sortedEntries.length ];
+        int size = 0;
+        for ( int i = 0; i < sortedEntries.length; i++ )
+        {
+            if ( i < copies || sortedEntries[ i ] != sortedEntries[ i - copies ] )
+            {
+                limited[ size++ ] = sortedEntries[ i ];
+            }
+        }
+        return size == sortedEntries.length ? sortedEntries : Arrays.copyOf( limited, size );
+    }
+
+    /**
+     * Finds three different entries that sum to the target, sharing the work between the pool's threads.
+     * <p>
+     * The range of 'first entry' indexes is split up between fork-join tasks, and each task sweeps its share of
+     * first entries against the (shared, read-only) sorted entries with the usual two-pointer search. As soon as
+     * any task finds a triple, every other task stops.
+     *
+     * @param sortedEntries the expense report entries, in ascending order
+     * @param target        the sum to find
+     * @param pool          the pool to run the search in
+     * @return the three entries, in ascending order
+     * @throws AnswerNotAvailableException if no three entries sum to the target
+     */
+    static int[] findTripleInParallel( final int[] sortedEntries, final long target, final ForkJoinPool pool )
+            throws AnswerNotAvailableException
+    {
+        final AtomicReference<int[]> found = new AtomicReference<>();
+        pool.invoke( new TripleSearch( sortedEntries, target, 0, Math.max( 0, sortedEntries.length - 2 ), found ) );
+        if ( found.get() == null )
+        {
+            throw new AnswerNotAvailableException();
+        }
+        return found.get();
+    }
+
+    /**
+     * A fork-join task searching for a triple whose first entry is in a range of indexes
+     */
+    static class TripleSearch extends RecursiveAction
+    {
+        // Ranges of first entries no bigger than this are searched rather than split further
+        private static final int CHUNK_SIZE = 64;
+
+        private final int[] sortedEntries;
+        private final long target;
+        private final int from;
+        private final int to;
+        private final AtomicReference<int[]> found;
+
+        /**
+         * Constructor
+         *
+         * @param sortedEntries the expense report entries, in ascending order
+         * @param target        the sum to find
+         * @param from          the first index of the first entry to try (inclusive)
+         * @param to            the last index of the first entry to try (exclusive)
+         * @param found         where the triple is put by whichever task finds it first
+         */
+        TripleSearch( final int[] sortedEntries,
+                      final long target,
+                      final int from,
+                      final int to,
+                      final AtomicReference<int[]> found )
+        {
+            this.sortedEntries = sortedEntries;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if ( to - from > CHUNK_SIZE )
+            {
+                final int middle = ( from + to ) >>> 1;
+                invokeAll( new TripleSearch( sortedEntries, target, from, middle, found ),
+                        new TripleSearch( sortedEntries, target, middle, to, found ) );
+                return;
+            }
+
+            final int end = sortedEntries.length - 1;
+            final int[] triple = new int[ 3 ];
+            for ( int i = from; i < to && found.get() == null; i++ )
+            {
+                final int first = sortedEntries[ i ];
+
+                // The same value has already been tried as a first entry (possibly by another task)
+                if ( i > 0 && first == sortedEntries[ i - 1 ] )
+                {
+                    continue;
+                }
+
+                // Every later first entry is at least this big, so the sum can only overshoot from here on
+                if ( ( long ) first * 3 > target )
+                {
+                    return;
+                }
+
+                // Even the biggest entries can't bring this one up to the target
+                if ( first + ( long ) sortedEntries[ end ] * 2 < target )
+                {
+                    continue;
+                }
+
+                triple[ 0 ] = first;
+                if ( findTuple( sortedEntries, i + 1, target - first, 2, triple ) )
+                {
+                    found.compareAndSet( null, triple );
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param tuple the entries to multiply
+     * @return the product of the entries
+     * @throws ArithmeticException if the product doesn't fit in a long (see {@link #bigProduct(int[])})
+     */
+    static long product( final int[] tuple )
+    {
+        long product = 1;
+        for ( final int entry : tuple )
+        {
+            product = Math.multiplyExact( product, entry );
+        }
+        return product;
+    }
+
+    /**
+     * @param tuple the entries to multiply
+     * @return the product of the entries, however big it gets
+     */
+    static BigInteger bigProduct( final int[] tuple )
+    {
+        BigInteger product = BigInteger.ONE;
+        for ( final int entry : tuple )
+        {
+            product = product.multiply( BigInteger.valueOf( entry ) );
+        }
+        return product;
     }
 
     /**
      * Get the data for the question
      *
-     * @return list of numbers
+     * @return array of numbers
      */
-    private List<Integer> getData()
+    private int[] getData()
     {
-        return AOCUtils.getIntegerData( getClass().getName() );
+        return AOCUtils.getIntArrayData( getClass().getName() );
+    }
+
+    /**
+     * A set of primitive ints, using open addressing (linear probing) so there's no boxing and no per-entry object
+     */
+    static class IntHashSet
+    {
+        // Empty slots hold this value, so whether the set holds it is tracked separately
+        private static final int FREE = 0;
+
+        private int[] slots;
+        private int size;
+        private boolean containsFree;
+
+        /**
+         * Constructor
+         *
+         * @param expectedSize how many values the set is expected to hold
+         */
+        public IntHashSet( final int expectedSize )
+        {
+            // Keep the table no more than half full, so probe sequences stay short
+            slots = new int[ Integer.highestOneBit( Math.max( 2, expectedSize ) * 2 - 1 ) * 2 ];
+        }
+
+        /**
+         * @param value the value to check
+         * @return TRUE if the set holds the value
+         */
+        public boolean contains( final int value )
+        {
+            if ( value == FREE )
+            {
+                return containsFree;
+            }
+            final int mask = slots.length - 1;
+            for ( int slot = mix( value ) & mask; slots[ slot ] != FREE; slot = ( slot + 1 ) & mask )
+            {
+                if ( slots[ slot ] == value )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param value the value to add
+         */
+        public void add( final int value )
+        {
+            if ( value == FREE )
+            {
+                containsFree = true;
+                return;
+            }
+            final int mask = slots.length - 1;
+            int slot = mix( value ) & mask;
+            while ( slots[ slot ] != FREE )
+            {
+                if ( slots[ slot ] == value )
+                {
+                    return;
+                }
+                slot = ( slot + 1 ) & mask;
+            }
+            slots[ slot ] = value;
+            if ( ++size * 2 > slots.length )
+            {
+                grow();
+            }
+        }
+
+        /**
+         * Doubles the table, re-inserting every value
+         */
+        private void grow()
+        {
+            final int[] oldSlots = slots;
+            slots = new int[ oldSlots.length * 2 ];
+            size = 0;
+            for ( final int value : oldSlots )
+            {
+                if ( value != FREE )
+                {
+                    add( value );
+                }
+            }
+        }
+
+        /**
+         * Spreads the bits of the value, so runs of similar values don't land in runs of neighbouring slots
+         */
+        private static int mix( final int value )
+        {
+            final int hash = value * 0x9E3779B9;
+            return hash ^ ( hash >>> 16 );
+        }
+    }
+
+    /**
+     * A map from the sum of a pair of entries to the (indexes of the) first pair found with that sum, using open
+     * addressing (linear probing) so there's no boxing and no per-entry object
+     */
+    static class PairSumTable
+    {
+        // The pair of an empty slot (and of a sum that isn't in the table); a real pair of indexes is never negative
+        static final long NO_PAIR = -1;
+
+        private long[] sums;
+        private long[] pairs;
+        private int size;
+
+        /**
+         * Constructor
+         *
+         * @param expectedSize how many sums the table is expected to hold
+         */
+        public PairSumTable( final int expectedSize )
+        {
+            // Keep the table no more than half full, so probe sequences stay short
+            final int capacity = Integer.highestOneBit( Math.max( 2, expectedSize ) * 2 - 1 ) * 2;
+            sums = new long[ capacity ];
+            pairs = new long[ capacity ];
+            Arrays.fill( pairs, NO_PAIR );
+        }
+
+        /**
+         * @return TRUE if the table holds no sums yet
+         */
+        public boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        /**
+         * @param sum the sum to look up
+         * @return the pair with the sum (see {@link #getFirst} and {@link #getSecond}), or NO_PAIR if there isn't one
+         */
+        public long get( final long sum )
+        {
+            final int mask = sums.length - 1;
+            for ( int slot = mix( sum ) & mask; pairs[ slot ] != NO_PAIR; slot = ( slot + 1 ) & mask )
+            {
+                if ( sums[ slot ] == sum )
+                {
+                    return pairs[ slot ];
+                }
+            }
+            return NO_PAIR;
+        }
+
+        /**
+         * Adds the pair, unless the table already holds a pair with the same sum
+         *
+         * @param sum    the sum of the pair's entries
+         * @param first  the index of the pair's first entry
+         * @param second the index of the pair's second entry
+         */
+        public void putIfAbsent( final long sum, final int first, final int second )
+        {
+            final int mask = sums.length - 1;
+            int slot = mix( sum ) & mask;
+            while ( pairs[ slot ] != NO_PAIR )
+            {
+                if ( sums[ slot ] == sum )
+                {
+                    return;
+                }
+                slot = ( slot + 1 ) & mask;
+            }
+            sums[ slot ] = sum;
+            pairs[ slot ] = ( long ) first << 32 | second;
+            if ( ++size * 2 > sums.length )
+            {
+                grow();
+            }
+        }
+
+        /**
+         * @param pair a pair from the table
+         * @return the index of the pair's first entry
+         */
+        static int getFirst( final long pair )
+        {
+            return ( int ) ( pair >>> 32 );
+        }
+
+        /**
+         * @param pair a pair from the table
+         * @return the index of the pair's second entry
+         */
+        static int getSecond( final long pair )
+        {
+            return ( int ) pair;
+        }
+
+        /**
+         * Doubles the table, re-inserting every pair
+         */
+        private void grow()
+        {
+            final long[] oldSums = sums;
+            final long[] oldPairs = pairs;
+            sums = new long[ oldSums.length * 2 ];
+            pairs = new long[ oldPairs.length * 2 ];
+            Arrays.fill( pairs, NO_PAIR );
+            size = 0;
+            for ( int slot = 0; slot < oldSums.length; slot++ )
+            {
+                if ( oldPairs[ slot ] != NO_PAIR )
+                {
+                    putIfAbsent( oldSums[ slot ], getFirst( oldPairs[ slot ] ), getSecond( oldPairs[ slot ] ) );
+                }
+            }
+        }
+
+        /**
+         * Spreads the bits of the sum, so runs of similar sums don't land in runs of neighbouring slots
+         */
+        private static int mix( final long sum )
+        {
+            final long hash = sum * 0x9E3779B97F4A7C15L;
+            return ( int ) ( hash ^ ( hash >>> 32 ) );
+        }
+    }
+
+    /**
+     * Reads entries from the reader (one per line) until two of them sum to the target, without keeping the
+     * entries themselves; e.g. for following an expense feed that never ends. Lines that aren't a number are skipped
+     * (and counted) rather than ending the feed.
+     *
+     * @param reader the source of the entries
+     * @param target the sum to find
+     * @return the detector, holding the pair (if one was found) and how many entries were consumed and skipped
+     * @throws IOException if the reader fails
+     */
+    static StreamingPairDetector findPairInStream( final BufferedReader reader, final int target ) throws IOException
+    {
+        final StreamingPairDetector detector = new StreamingPairDetector( target );
+        String line;
+        while ( ( line = reader.readLine() ) != null )
+        {
+            final String entry = line.trim();
+            if ( entry.isEmpty() )
+            {
+                continue;
+            }
+
+            final int value;
+            try
+            {
+                value = Integer.parseInt( entry );
+            }
+            catch ( final NumberFormatException e )
+            {
+                detector.skip();
+                continue;
+            }
+            if ( detector.accept( value ) )
+            {
+                break;
+            }
+        }
+        return detector;
+    }
+
+    /**
+     * A push-based pair detector for an unbounded stream of entries.
+     * <p>
+     * Expense entries aren't negative, so only entries between 0 and the target can ever be part of a pair. The
+     * detector only remembers which of those values it has seen, in a bitset of target + 1 bits, so its memory
+     * use is fixed however many entries are pushed through it.
+     */
+    static class StreamingPairDetector
+    {
+        private final int target;
+        private final long[] seen;
+        private long consumed;
+        private long skipped;
+        private int[] pair;
+
+        /**
+         * Constructor
+         *
+         * @param target the sum to find
+         */
+        public StreamingPairDetector( final int target )
+        {
+            if ( target < 0 )
+            {
+                throw new IllegalArgumentException( "The target can't be negative: " + target );
+            }
+            this.target = target;
+            seen = new long[ ( target >>> 6 ) + 1 ];
+        }
+
+        /**
+         * Pushes the next entry through the detector
+         *
+         * @param entry the next entry
+         * @return TRUE if this entry completes a pair (or a pair had already been found)
+         */
+        public boolean accept( final int entry )
+        {
+            if ( pair != null )
+            {
+                return true;
+            }
+            consumed++;
+            if ( entry < 0 || entry > target )
+            {
+                // Can never be part of a pair
+                return false;
+            }
+
+            // Checked before this entry is recorded, so an entry can't pair with itself
+            final int partner = target - entry;
+            if ( ( seen[ partner >>> 6 ] & ( 1L << partner ) ) != 0 )
+            {
+                pair = new int[]{ partner, entry };
+                return true;
+            }
+            seen[ entry >>> 6 ] |= 1L << entry;
+            return false;
+        }
+
+        /**
+         * Notes an entry that couldn't be read, and so wasn't pushed through the detector
+         */
+        public void skip()
+        {
+            skipped++;
+        }
+
+        /**
+         * @return the pair (earlier entry first), or null if no pair has been found yet
+         */
+        public int[] getPair()
+        {
+            return pair;
+        }
+
+        /**
+         * @return how many entries were consumed, up to and including the one that completed the pair
+         */
+        public long getConsumed()
+        {
+            return consumed;
+        }
+
+        /**
+         * @return how many entries were skipped because they couldn't be read
+         */
+        public long getSkipped()
+        {
+            return skipped;
+        }
+    }
+
+    /**
+     * A pre-built index over an expense report, for asking it about lots of different target sums.
+     * <p>
+     * The entries are sorted once, and (when the range of values isn't silly) a presence bitset is built over the
+     * range of values, along with a second bitset of the values that appear more than once. A pair query then
+     * walks the distinct values up to half the target, checking each partner with a single bit test: O(n). Triple
+     * queries use the two-pointer search over the sorted entries: O(n^2).
+     * <p>
+     * The index is read-only once built, so a batch of targets can safely be answered concurrently.
+     */
+    static class ExpenseIndex
+    {
+        // Beyond this range of values, the bitsets would cost more than they save
+        private static final long MAX_BITSET_RANGE = 1L << 26;
+
+        private final int[] sortedEntries;
+        private final long minimum;
+        private final long maximum;
+
+        // One bit per value in the range [minimum, maximum]; null if the range is too big
+        private final long[] present;
+        private final long[] repeated;
+
+        /**
+         * Constructor
+         *
+         * @param entries the expense report entries (in any order; they aren't modified)
+         */
+        public ExpenseIndex( final int[] entries )
+        {
+            sortedEntries = entries.clone();
+            Arrays.sort( sortedEntries );
+            minimum = sortedEntries.length == 0 ? 0 : sortedEntries[ 0 ];
+            maximum = sortedEntries.length == 0 ? -1 : sortedEntries[ sortedEntries.length - 1 ];
+
+            final long range = maximum - minimum + 1;
+            if ( range > MAX_BITSET_RANGE )
+            {
+                present = null;
+                repeated = null;
+                return;
+            }
+
+            present = new long[ ( int ) ( ( range + 63 ) >>> 6 ) ];
+            repeated = new long[ present.length ];
+            for ( int i = 0; i < sortedEntries.length; i++ )
+            {
+                final int bit = ( int ) ( sortedEntries[ i ] - minimum );
+                present[ bit >>> 6 ] |= 1L << bit;
+                if ( i > 0 && sortedEntries[ i ] == sortedEntries[ i - 1 ] )
+                {
+                    repeated[ bit >>> 6 ] |= 1L << bit;
+                }
+            }
+        }
+
+        /**
+         * Finds two different entries that sum to the target
+         *
+         * @param target the sum to find
+         * @return the two entries, smallest first
+         * @throws AnswerNotAvailableException if no two entries sum to the target
+         */
+        public int[] findPair( final long target ) throws AnswerNotAvailableException
+        {
+            for ( int i = 0; i < sortedEntries.length; i++ )
+            {
+                final int entry = sortedEntries[ i ];
+                final long partner = target - entry;
+                if ( partner < entry )
+                {
+                    // Every pair from here on has already been checked the other way around
+                    break;
+                }
+                if ( i > 0 && entry == sortedEntries[ i - 1 ] )
+                {
+                    continue;
+                }
+                if ( partner == entry ? isRepeated( entry ) : isPresent( partner ) )
+                {
+                    return new int[]{ entry, ( int ) partner };
+                }
+            }
+            throw new AnswerNotAvailableException();
+        }
+
+        /**
+         * Finds three different entries that sum to the target
+         *
+         * @param target the sum to find
+         * @return the three entries, smallest first
+         * @throws AnswerNotAvailableException if no three entries sum to the target
+         */
+        public int[] findTriple( final long target ) throws AnswerNotAvailableException
+        {
+            return findTuple( sortedEntries, target, 3 );
+        }
+
+        /**
+         * Finds a pair for each of the targets
+         *
+         * @param targets      the sums to find
+         * @param concurrently if TRUE, the targets are shared between the common fork-join pool's threads
+         * @return each target that has a pair (in the order given) and its pair
+         */
+        public Map<Long, int[]> findPairs( final long[] targets, final boolean concurrently )
+        {
+            return query( targets, concurrently, 2 );
+        }
+
+        /**
+         * Finds a triple for each of the targets
+         *
+         * @param targets      the sums to find
+         * @param concurrently if TRUE, the targets are shared between the common fork-join pool's threads
+         * @return each target that has a triple (in the order given) and its triple
+         */
+        public Map<Long, int[]> findTriples( final long[] targets, final boolean concurrently )
+        {
+            return query( targets, concurrently, 3 );
+        }
+
+        /**
+         * Answers a batch of pair or triple queries
+         *
+         * @param targets      the sums to find
+         * @param concurrently whether to answer the targets in parallel
+         * @param k            2 for pairs, 3 for triples
+         * @return each target that has an answer (in the order given) and its answer
+         */
+        private Map<Long, int[]> query( final long[] targets, final boolean concurrently, final int k )
+        {
+            final int[][] answers = new int[ targets.length ][];
+            final IntStream queries = IntStream.range( 0, targets.length );
+            ( concurrently ? queries.parallel() : queries ).forEach( i -> {
+                try
+                {
+                    answers[ i ] = k == 2 ? findPair( targets[ i ] ) : findTriple( targets[ i ] );
+                }
+                catch ( final AnswerNotAvailableException e )
+                {
+                    // Not every target has an answer; it's simply left out
+                }
+            } );
+
+            final Map<Long, int[]> results = new LinkedHashMap<>();
+            for ( int i = 0; i < targets.length; i++ )
+            {
+                if ( answers[ i ] != null )
+                {
+                    results.put( targets[ i ], answers[ i ] );
+                }
+            }
+            return results;
+        }
+
+        /**
+         * @param value the value to check
+         * @return TRUE if at least one entry has the value
+         */
+        private boolean isPresent( final long value )
+        {
+            if ( value < minimum || value > maximum )
+            {
+                return false;
+            }
+            if ( present == null )
+            {
+                return Arrays.binarySearch( sortedEntries, ( int ) value ) >= 0;
+            }
+            final int bit = ( int ) ( value - minimum );
+            return ( present[ bit >>> 6 ] & ( 1L << bit ) ) != 0;
+        }
+
+        /**
+         * @param value the value to check
+         * @return TRUE if at least two entries have the value
+         */
+        private boolean isRepeated( final int value )
+        {
+            if ( value < minimum || value > maximum )
+            {
+                return false;
+            }
+            if ( repeated == null )
+            {
+                final int index = Arrays.binarySearch( sortedEntries, value );
+                return index >= 0 && ( index > 0 && sortedEntries[ index - 1 ] == value
+                        || index < sortedEntries.length - 1 && sortedEntries[ index + 1 ] == value );
+            }
+            final int bit = ( int ) ( value - minimum );
+            return ( repeated[ bit >>> 6 ] & ( 1L << bit ) ) != 0;
+        }
     }
 
     /* *************** *
@@ -172,7 +1072,99 @@ public class Day1
      */
     private void testLogic() throws AnswerNotAvailableException
     {
-        assert getAnswer( 1, Arrays.asList( 1721, 979, 366, 299, 675, 1456 ) ) == 514579 : PART_1_TEST_FAILED;
-        assert getAnswer( 2, Arrays.asList( 1721, 979, 366, 299, 675, 1456 ) ) == 241861950 : PART_2_TEST_FAILED;
+        final int[] exampleData = { 1721, 979, 366, 299, 675, 1456 };
+        assert getAnswer( 1, exampleData ) == 514579 : PART_1_TEST_FAILED;
+        assert getAnswer( 2, exampleData ) == 241861950 : PART_2_TEST_FAILED;
+
+        // Two different entries may have the same value
+        assert findPairProduct( new int[]{ 1010, 5, 1010 }, TARGET_SUM ) == 1020100 : PART_1_TEST_FAILED;
+
+        // A product that doesn't fit in an int
+        assert findPairProduct( new int[]{ 60000, 70000 }, 130000 ) == 4_200_000_000L : TEST_FAILED;
+
+        // Larger tuples, with only one way to make each sum
+        final int[] powersOfTwo = { 1, 2, 4, 8, 16, 32 };
+        assert product( findTuple( powersOfTwo, 27, 4 ) ) == 256 : TEST_FAILED;
+        assert bigProduct( findTuple( powersOfTwo, 63, 6 ) ).longValue() == 32768 : TEST_FAILED;
+
+        // Quadruples can reuse a value that appears more than once, but not a single entry
+        assert product( findTuple( new int[]{ 5, 5, 5, 5, 5, 2005 }, 2020, 4 ) ) == 5 * 5 * 5 * 2005 : TEST_FAILED;
+        assert product( findTuple( new int[]{ 1, 1, 1, 1, 1, 1 }, 4, 4 ) ) == 1 : TEST_FAILED;
+        assert testSingleUse() : TEST_FAILED;
+
+        // The index and the streaming detector should give the same answers (these build their own structures, so
+        // only run when assertions are enabled)
+        assert testExpenseIndex( exampleData ) : TEST_FAILED;
+        assert testStreaming( exampleData ) : TEST_FAILED;
+    }
+
+    /**
+     * Checks that a tuple can't use the same entry twice
+     *
+     * @return true if the checks passed (a failing check trips its own assertion)
+     */
+    private boolean testSingleUse()
+    {
+        try
+        {
+            findTuple( new int[]{ 1, 2, 3, 1000 }, 1003, 4 );
+            assert false : TEST_FAILED;
+        }
+        catch ( final AnswerNotAvailableException e )
+        {
+            // Only three entries can make the sum
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the index gives the same answers as the questions' examples, for any number of targets
+     *
+     * @param exampleData the example entries
+     * @return true if the checks passed (a failing check trips its own assertion)
+     * @throws AnswerNotAvailableException if the logic is broken or the sample data is invalid.
+     */
+    private boolean testExpenseIndex( final int[] exampleData ) throws AnswerNotAvailableException
+    {
+        final ExpenseIndex index = new ExpenseIndex( exampleData );
+        assert product( index.findPair( TARGET_SUM ) ) == 514579 : PART_1_TEST_FAILED;
+        assert product( index.findTriple( TARGET_SUM ) ) == 241861950 : PART_2_TEST_FAILED;
+        final Map<Long, int[]> pairs = index.findPairs( new long[]{ 2020, 1345, 1, 3177 }, true );
+        assert pairs.size() == 3 && product( pairs.get( 1345L ) ) == 979 * 366 : TEST_FAILED;
+        assert product( findTripleInParallel( index.sortedEntries, TARGET_SUM, ForkJoinPool.commonPool() ) )
+                == 241861950 : PART_2_TEST_FAILED;
+        assert new ExpenseIndex( new int[]{ 1010, 5, 1010 } ).findPairs( new long[]{ 2020, 10 }, false ).size() == 1
+                : TEST_FAILED;
+        return true;
+    }
+
+    /**
+     * Checks that the streaming detector stops at the first pair, and that a feed's malformed lines are skipped
+     *
+     * @param exampleData the example entries
+     * @return true if the checks passed (a failing check trips its own assertion)
+     */
+    private boolean testStreaming( final int[] exampleData )
+    {
+        final StreamingPairDetector detector = new StreamingPairDetector( TARGET_SUM );
+        int consumed = 0;
+        while ( !detector.accept( exampleData[ consumed ] ) )
+        {
+            consumed++;
+        }
+        assert product( detector.getPair() ) == 514579 && detector.getConsumed() == 4 : PART_1_TEST_FAILED;
+        try
+        {
+            // Malformed lines in a feed are skipped and counted rather than ending it
+            final StreamingPairDetector feed = findPairInStream(
+                    new BufferedReader( new StringReader( "1721\n97 9\nabc\n\n299\n" ) ), TARGET_SUM );
+            assert product( feed.getPair() ) == 514579 : PART_1_TEST_FAILED;
+            assert feed.getConsumed() == 2 && feed.getSkipped() == 2 : TEST_FAILED;
+        }
+        catch ( final IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        return true;
     }
 }
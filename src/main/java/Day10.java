@@ -19,6 +19,7 @@ import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import exception.AnswerNotAvailableException;
+import utils.Answers;
 
 
 /**
@@ -143,13 +144,13 @@ public class Day10
         testLogic();
 
         setData();
-        System.out.println( THE_ANSWER_IS_PT1 + part1() );
+        Answers.print( 1, this::part1 );
 
         /*
          *
          */
         setData();
-        System.out.println( THE_ANSWER_IS_PT2 + calculatePart2( 0 ) );
+        Answers.print( 2, () -> calculatePart2( 0 ) );
     }
 
     /**
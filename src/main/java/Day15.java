@@ -12,6 +12,7 @@ import java.util.Map;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 
 /**
@@ -76,8 +77,8 @@ public class Day15
         // Check the logic with the example before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1( getData() ) );
-        System.out.println( THE_ANSWER_IS_PT2 + part2( getData() ) );
+        Answers.print( 1, () -> part1( getData() ) );
+        Answers.print( 2, () -> part2( getData() ) );
     }
 
     /**
@@ -5,14 +5,27 @@
 
 import static constants.Constants.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Properties;
+import java.util.stream.IntStream;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 /**
  * Advent of Code 2020
@@ -44,11 +57,36 @@ import utils.AOCUtils;
  */
 public class Day2
 {
-    private static final String CORRECT_PASSWORDS_KEY = "correct";
-    private static final String INCORRECT_PASSWORDS_KEY = "incorrect";
-    private final Map<String, List<String>> results = new HashMap<>();
-    private final List<String> correctPasswords = new ArrayList<>();
-    private final List<String> incorrectPasswords = new ArrayList<>();
+    // No failing lines are kept when only the counts are needed
+    static final int NO_SAMPLE = 0;
+    private static final byte HYPHEN_BYTE = '-';
+    private static final byte COLON_BYTE = ':';
+    private static final byte SPACE_BYTE = ' ';
+
+    // Limits on how the parallel validation splits up a file
+    private static final long MINIMUM_CHUNK_BYTES = 1 << 20;
+    private static final long MAXIMUM_CHUNK_BYTES = 1 << 30;
+    private static final int CHUNKS_PER_CORE = 4;
+
+    /**
+     * Part 1: the letter must appear between the lower and upper number of times
+     */
+    static final PasswordPolicy FREQUENCY_POLICY = entry ->
+    {
+        final int count = entry.countLetter();
+        return count >= entry.getLower() && count <= entry.getUpper();
+    };
+
+    /**
+     * Part 2: the letter must be at exactly one of the lower and upper positions
+     */
+    static final PasswordPolicy POSITION_POLICY = entry ->
+            // Positions outside the password make the password invalid
+            entry.isPosition( entry.getLower() ) && entry.isPosition( entry.getUpper() )
+            && entry.hasLetterAt( entry.getLower() ) ^ entry.hasLetterAt( entry.getUpper() );
+
+    // The audits of the input against the part 1 and part 2 policies (both are worked out in the one pass)
+    private PasswordAudit[] audits;
 
     /**
      * Constructor
@@ -58,8 +96,9 @@ public class Day2
         // Check the logic with the examples before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1() );
-        System.out.println( THE_ANSWER_IS_PT2 + part2() );
+        Answers.print( 1, this::part1 );
+        // Part 2's answer comes out of part 1's pass, so it isn't timed as if it were work of its own
+        Answers.printShared( 2, this::part2 );
     }
 
     /**
@@ -72,9 +111,9 @@ public class Day2
      * <p>
      * Answer: 500
      */
-    private int part1()
+    private long part1()
     {
-        return getIncorrectPasswords( 1, getData() ).get( CORRECT_PASSWORDS_KEY ).size();
+        return getAudits()[ 0 ].getCorrect();
     }
 
     /**
@@ -101,125 +140,706 @@ public class Day2
      * <p>
      * Answer: 313
      */
-    private int part2()
+    private long part2()
     {
-        return getIncorrectPasswords( 2, getData() ).get( CORRECT_PASSWORDS_KEY ).size();
+        return getAudits()[ 1 ].getCorrect();
     }
 
     /**
-     * Iterate through the values to get the passwords that are correct/incorrect
+     * Audits the input against both parts' policies in a single pass, the first time either part asks
      *
-     * @param part the question part whose criteria should be applied
-     * @return map of correct and incorrect password lists
+     * @return the audits for the part 1 and part 2 policies
      */
-    private Map<String, List<String>> getIncorrectPasswords( final int part, final List<String> data )
+    private PasswordAudit[] getAudits()
     {
-        // Make sure the lists are reset
-        correctPasswords.clear();
-        incorrectPasswords.clear();
-
-        // Loop through all the values
-        for ( final String line : data )
+        if ( audits == null )
         {
+            audits = evaluate( getData(), NO_SAMPLE, FREQUENCY_POLICY, POSITION_POLICY );
+        }
+        return audits;
+    }
 
-            final List<String> entryParts = Arrays.asList( line.split( SINGLE_SPACE ) );
-            final String[] numbers = entryParts.get( 0 ).split( HYPHEN );
-            final String letterToCheck = entryParts.get( 1 ).split( COLON )[ 0 ];
-            final String password = entryParts.get( 2 );
+    /**
+     * Iterate through the values, counting the passwords that are correct/incorrect under each of the policies
+     * <p>
+     * Every policy is checked in the same pass: each line is parsed straight from the input bytes once, and
+     * validated in place against all of them (any letter counts are also only worked out once per password). Only
+     * the tallies (and the requested sample of failing lines) are kept, so memory use doesn't grow with the size of
+     * the database.
+     *
+     * @param data        the input bytes
+     * @param sampleLimit the most failing lines to keep for auditing, per policy (0 for none)
+     * @param policies    the policies to check each password against
+     * @return the counts of correct and incorrect passwords for each policy, in the same order as the policies
+     */
+    static PasswordAudit[] evaluate( final byte[] data, final int sampleLimit, final PasswordPolicy... policies )
+    {
+        return evaluate( ByteBuffer.wrap( data ), 0, data.length, sampleLimit, policies );
+    }
 
-            final int lower = Integer.parseInt( numbers[ 0 ] );
-            final int upper = Integer.parseInt( numbers[ 1 ] );
+    /**
+     * Counts the passwords that are correct/incorrect under each of the policies, for a range of the input
+     *
+     * @param data        the input bytes
+     * @param start       the index of the first byte of the first line
+     * @param end         the index after the last byte of the last line
+     * @param sampleLimit the most failing lines to keep for auditing, per policy (0 for none)
+     * @param policies    the policies to check each password against
+     * @return the counts of correct and incorrect passwords for each policy, in the same order as the policies
+     */
+    static PasswordAudit[] evaluate( final ByteBuffer data,
+                                     final int start,
+                                     final int end,
+                                     final int sampleLimit,
+                                     final PasswordPolicy... policies )
+    {
+        final PasswordAudit[] audits = createAudits( sampleLimit, policies.length );
 
-            if ( part == 1 )
+        // Loop through all the lines, re-using the one entry
+        final PasswordEntry entry = new PasswordEntry();
+        int offset = start;
+        while ( offset < end )
+        {
+            offset = entry.parse( data, offset, end );
+            if ( !entry.isValid() )
             {
-                calculatePart1Validity( lower, upper, letterToCheck, password );
+                // Blank or malformed line
+                continue;
             }
-            else if ( part == 2 )
+            for ( int i = 0; i < policies.length; i++ )
             {
-                calculatePart2Validity( lower, upper, letterToCheck, password );
+                audits[ i ].record( entry, policies[ i ].isValid( entry ) );
             }
         }
+        return audits;
+    }
 
-        results.put( CORRECT_PASSWORDS_KEY, correctPasswords );
-        results.put( INCORRECT_PASSWORDS_KEY, incorrectPasswords );
-        return results;
+    /**
+     * Counts the passwords in a (potentially huge) password database file that are correct/incorrect under each of
+     * the policies, validating it in parallel.
+     * <p>
+     * The file is split into chunks that end on a line break, and each chunk is memory mapped and validated by its
+     * own worker into its own tallies; the tallies are only combined once every chunk is done, so the workers share
+     * nothing (the policies must be stateless). Memory use is just the tallies, however big the file.
+     *
+     * @param file        the password database
+     * @param sampleLimit the most failing lines to keep for auditing, per policy (0 for none)
+     * @param policies    the policies to check each password against
+     * @return the counts of correct and incorrect passwords for each policy, in the same order as the policies
+     * @throws IOException if the file can't be read
+     */
+    static PasswordAudit[] evaluateInParallel( final Path file,
+                                               final int sampleLimit,
+                                               final PasswordPolicy... policies ) throws IOException
+    {
+        final long size = Files.size( file );
+
+        // A few chunks per core so the work evens out, but not so small that they're not worth mapping
+        final long chunks = Math.max( Math.min( size / MINIMUM_CHUNK_BYTES,
+                                                Runtime.getRuntime().availableProcessors() * CHUNKS_PER_CORE ),
+                                      ( size + MAXIMUM_CHUNK_BYTES - 1 ) / MAXIMUM_CHUNK_BYTES );
+        return evaluateInParallel( file, ( int ) Math.max( 1, chunks ), sampleLimit, policies );
+    }
+
+    /**
+     * Counts the passwords in a password database file that are correct/incorrect under each of the policies,
+     * splitting it into the given number of chunks (at most) to validate in parallel
+     *
+     * @param file        the password database
+     * @param chunks      how many chunks to split the file into
+     * @param sampleLimit the most failing lines to keep for auditing, per policy (0 for none)
+     * @param policies    the policies to check each password against
+     * @return the counts of correct and incorrect passwords for each policy, in the same order as the policies
+     * @throws IOException if the file can't be read
+     */
+    static PasswordAudit[] evaluateInParallel( final Path file,
+                                               final int chunks,
+                                               final int sampleLimit,
+                                               final PasswordPolicy... policies ) throws IOException
+    {
+        try ( final FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) )
+        {
+            final long[] bounds = getChunkBounds( channel, chunks );
+            return IntStream.range( 0, chunks ).parallel().mapToObj( chunk ->
+            {
+                try
+                {
+                    final MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, bounds[ chunk ],
+                                                                 bounds[ chunk + 1 ] - bounds[ chunk ] );
+                    return evaluate( buffer, 0, buffer.limit(), sampleLimit, policies );
+                }
+                catch ( final IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            } ).reduce( Day2::combine ).orElseGet( () -> createAudits( sampleLimit, policies.length ) );
+        }
+        catch ( final UncheckedIOException e )
+        {
+            throw e.getCause();
+        }
     }
 
     /**
-     * Calculates the Part 1 validity
-     * The instances of the letterToCheck should be within the upper and lower boundaries
+     * Splits the file into roughly equal chunks, moving each split forward to just after the next line break so
+     * that no line is split between two chunks
      *
-     * @param lower         upper boundary
-     * @param upper         lower boundary
-     * @param letterToCheck the letter to search for
-     * @param password      the password to validate
+     * @param channel the file
+     * @param chunks  how many chunks to split the file into
+     * @return the offset of the start of each chunk, followed by the size of the file
+     * @throws IOException if the file can't be read
      */
-    private void calculatePart1Validity( final int lower,
-                                         final int upper,
-                                         final String letterToCheck,
-                                         final String password )
+    private static long[] getChunkBounds( final FileChannel channel, final int chunks ) throws IOException
     {
-        int count = 0;
-        for ( final char letter : password.toCharArray() )
+        final long size = channel.size();
+        final long[] bounds = new long[ chunks + 1 ];
+        final ByteBuffer buffer = ByteBuffer.allocate( 4096 );
+        for ( int chunk = 1; chunk < chunks; chunk++ )
         {
-            if ( letterToCheck.charAt( 0 ) == letter )
+            // Start looking from the byte before the split, in case the split is already at the start of a line
+            long position = Math.max( bounds[ chunk - 1 ], size / chunks * chunk - 1 );
+            bounds[ chunk ] = size;
+            while ( position < size && bounds[ chunk ] == size )
             {
-                count++;
+                buffer.clear();
+                final int read = channel.read( buffer, position );
+                for ( int i = 0; i < read; i++ )
+                {
+                    if ( buffer.get( i ) == '\n' )
+                    {
+                        bounds[ chunk ] = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max( read, 1 );
             }
         }
+        bounds[ chunks ] = size;
+        return bounds;
+    }
 
-        if ( count < lower || count > upper )
+    /**
+     * @param sampleLimit the most failing lines to keep for auditing (0 for none)
+     * @param count       the number of audits
+     * @return new, empty audits
+     */
+    private static PasswordAudit[] createAudits( final int sampleLimit, final int count )
+    {
+        final PasswordAudit[] audits = new PasswordAudit[ count ];
+        for ( int i = 0; i < count; i++ )
         {
-            incorrectPasswords.add( password );
+            audits[ i ] = new PasswordAudit( sampleLimit );
         }
-        else
+        return audits;
+    }
+
+    /**
+     * Adds the tallies of the later audits to the earlier ones
+     *
+     * @param earlier the audits of a range of the input
+     * @param later   the audits of the range after it
+     * @return the earlier audits, now covering both ranges
+     */
+    private static PasswordAudit[] combine( final PasswordAudit[] earlier, final PasswordAudit[] later )
+    {
+        for ( int i = 0; i < earlier.length; i++ )
         {
-            correctPasswords.add( password );
+            earlier[ i ].add( later[ i ] );
         }
+        return earlier;
     }
 
     /**
-     * Calculates the Part 2 validity
-     * At each index, only one character should match the letterToCheck for the password to be valid
+     * Get the data for the question
      *
-     * @param lower         upper index (0=1)
-     * @param upper         lower index (0=1)
-     * @param letterToCheck the letter to search for
-     * @param password      the password to validate
+     * @return the bytes of the password database
+     */
+    private byte[] getData()
+    {
+        return AOCUtils.getBytes( getClass().getName() );
+    }
+
+    /**
+     * A line of the password database, e.g. '1-3 a: abcde'
+     * <p>
+     * The policy is held in primitive fields and the password as a slice of the input, so a single entry can be
+     * re-used to parse every line without allocating anything.
      */
-    private void calculatePart2Validity( final int lower,
-                                         final int upper,
-                                         final String letterToCheck,
-                                         final String password )
+    static class PasswordEntry
     {
-        // Correct the indexes to suit the array 0 start offset
-        final int lowerIndex = lower - 1;
-        final int upperIndex = upper - 1;
+        private ByteBuffer source;
+        private int lineStart;
+        private int lower;
+        private int upper;
+        private byte letter;
+        private int passwordStart;
+        private int passwordEnd;
+        private boolean valid;
+
+        // How many times each byte appears in the password (only worked out if a policy asks for it)
+        private final int[] letterCounts = new int[ 256 ];
+        private boolean counted;
 
-        if ( lowerIndex >= 0 && upperIndex <= password.length() )
+        /**
+         * Parses the line starting at the given offset into this entry
+         *
+         * @param bytes  the input
+         * @param offset the index of the first byte of the line
+         * @param limit  the index after the last byte of the input
+         * @return the index of the first byte of the next line
+         */
+        int parse( final ByteBuffer bytes, final int offset, final int limit )
         {
-            // Check the position matches
-            final boolean position1match = password.charAt( lowerIndex ) == letterToCheck.charAt( 0 );
-            final boolean position2match = password.charAt( upperIndex ) == letterToCheck.charAt( 0 );
+            clearLetterCounts();
+            source = bytes;
+            lineStart = offset;
+            valid = false;
 
-            // Only one of the values should match for the password to be valid
-            if ( ( position1match || position2match ) && !( position1match && position2match ) )
+            // lower '-' upper ' ' letter ':' ' ' password
+            int position = offset;
+            lower = 0;
+            final int lowerStart = position;
+            while ( position < limit && isDigit( bytes.get( position ) ) )
             {
-                correctPasswords.add( password );
-                return;
+                lower = lower * 10 + ( bytes.get( position++ ) - '0' );
+            }
+            if ( position > lowerStart && expect( bytes, position, limit, HYPHEN_BYTE ) )
+            {
+                upper = 0;
+                final int upperStart = ++position;
+                while ( position < limit && isDigit( bytes.get( position ) ) )
+                {
+                    upper = upper * 10 + ( bytes.get( position++ ) - '0' );
+                }
+                if ( position > upperStart && expect( bytes, position, limit, SPACE_BYTE ) && position + 3 < limit
+                     && bytes.get( position + 2 ) == COLON_BYTE && bytes.get( position + 3 ) == SPACE_BYTE )
+                {
+                    letter = bytes.get( position + 1 );
+                    position += 4;
+                    valid = true;
+                }
+            }
+
+            // The password runs to the end of the line (the whole line is skipped if it's malformed)
+            passwordStart = position;
+            while ( position < limit && !isLineEnd( bytes.get( position ) ) )
+            {
+                position++;
             }
+            passwordEnd = position;
+
+            while ( position < limit && isLineEnd( bytes.get( position ) ) )
+            {
+                position++;
+            }
+            return position;
+        }
+
+        /**
+         * @return TRUE if the last line parsed was a well-formed entry
+         */
+        boolean isValid()
+        {
+            return valid;
+        }
+
+        /**
+         * @return the letter of the policy
+         */
+        byte getLetter()
+        {
+            return letter;
+        }
+
+        /**
+         * @return the lower number of the policy
+         */
+        int getLower()
+        {
+            return lower;
+        }
+
+        /**
+         * @return the upper number of the policy
+         */
+        int getUpper()
+        {
+            return upper;
+        }
+
+        /**
+         * @return the length of the password
+         */
+        int length()
+        {
+            return passwordEnd - passwordStart;
+        }
+
+        /**
+         * @return the number of times the policy's letter appears in the password
+         */
+        int countLetter()
+        {
+            return countOf( letter );
+        }
+
+        /**
+         * @param value the letter to count
+         * @return the number of times the letter appears in the password
+         */
+        int countOf( final byte value )
+        {
+            if ( !counted )
+            {
+                for ( int i = passwordStart; i < passwordEnd; i++ )
+                {
+                    letterCounts[ source.get( i ) & 0xFF ]++;
+                }
+                counted = true;
+            }
+            return letterCounts[ value & 0xFF ];
+        }
+
+        /**
+         * Resets the letter counts of the last password, by clearing only the letters it contained
+         */
+        private void clearLetterCounts()
+        {
+            if ( counted )
+            {
+                for ( int i = passwordStart; i < passwordEnd; i++ )
+                {
+                    letterCounts[ source.get( i ) & 0xFF ] = 0;
+                }
+                counted = false;
+            }
+        }
+
+        /**
+         * @param position the position to check (1 = the first character)
+         * @return TRUE if the position is within the password
+         */
+        boolean isPosition( final int position )
+        {
+            return position >= 1 && position <= length();
+        }
+
+        /**
+         * @param position the position to check (1 = the first character)
+         * @return TRUE if the policy's letter is at the given position of the password
+         */
+        boolean hasLetterAt( final int position )
+        {
+            return isPosition( position ) && letterAt( position ) == letter;
+        }
+
+        /**
+         * @param position the position to get (1 = the first character)
+         * @return the letter at the given position of the password
+         */
+        byte letterAt( final int position )
+        {
+            return source.get( passwordStart + position - 1 );
+        }
+
+        /**
+         * @return the password, as a new String (only needed if the password is being kept)
+         */
+        String getPassword()
+        {
+            return toString( passwordStart, passwordEnd );
+        }
+
+        /**
+         * @return the whole line, as a new String (only needed if the line is being kept)
+         */
+        String getLine()
+        {
+            return toString( lineStart, passwordEnd );
+        }
+
+        private String toString( final int start, final int end )
+        {
+            final byte[] text = new byte[ end - start ];
+            for ( int i = 0; i < text.length; i++ )
+            {
+                text[ i ] = source.get( start + i );
+            }
+            return new String( text, StandardCharsets.US_ASCII );
+        }
+
+        private static boolean expect( final ByteBuffer bytes,
+                                       final int position,
+                                       final int limit,
+                                       final byte expected )
+        {
+            return position < limit && bytes.get( position ) == expected;
+        }
+
+        private static boolean isDigit( final byte value )
+        {
+            return value >= '0' && value <= '9';
+        }
+
+        private static boolean isLineEnd( final byte value )
+        {
+            return value == '\n' || value == '\r';
         }
-        incorrectPasswords.add( password );
     }
 
     /**
-     * Get the data for the question
-     *
-     * @return list of numbers
+     * A rule that a password must satisfy to be valid
      */
-    private List<String> getData()
+    @FunctionalInterface
+    interface PasswordPolicy
     {
-        return AOCUtils.getData( getClass().getName() );
+        /**
+         * @param entry the parsed password and policy numbers/letter
+         * @return TRUE if the password is valid
+         */
+        boolean isValid( PasswordEntry entry );
+    }
+
+    /**
+     * The tallies of correct and incorrect passwords, plus the first few failing lines (if a sample was asked for)
+     */
+    static class PasswordAudit
+    {
+        private final int sampleLimit;
+        private final List<String> failureSample = new ArrayList<>();
+        private long correct;
+        private long incorrect;
+
+        /**
+         * Constructor
+         *
+         * @param sampleLimit the most failing lines to keep (0 for none)
+         */
+        PasswordAudit( final int sampleLimit )
+        {
+            this.sampleLimit = sampleLimit;
+        }
+
+        /**
+         * Counts the entry, keeping its line if it failed and the sample isn't full yet
+         *
+         * @param entry     the entry validated
+         * @param isCorrect TRUE if the password was valid
+         */
+        void record( final PasswordEntry entry, final boolean isCorrect )
+        {
+            if ( isCorrect )
+            {
+                correct++;
+            }
+            else
+            {
+                incorrect++;
+                if ( failureSample.size() < sampleLimit )
+                {
+                    failureSample.add( entry.getLine() );
+                }
+            }
+        }
+
+        /**
+         * Adds the tallies (and as much of the sample as there's room for) of another audit to this one
+         *
+         * @param other the audit of the input after this one's
+         */
+        void add( final PasswordAudit other )
+        {
+            correct += other.correct;
+            incorrect += other.incorrect;
+            for ( final String line : other.failureSample )
+            {
+                if ( failureSample.size() == sampleLimit )
+                {
+                    break;
+                }
+                failureSample.add( line );
+            }
+        }
+
+        /**
+         * @return the number of valid passwords
+         */
+        long getCorrect()
+        {
+            return correct;
+        }
+
+        /**
+         * @return the number of invalid passwords
+         */
+        long getIncorrect()
+        {
+            return incorrect;
+        }
+
+        /**
+         * @return the first failing lines, up to the sample limit
+         */
+        List<String> getFailureSample()
+        {
+            return Collections.unmodifiableList( failureSample );
+        }
+    }
+
+    /**
+     * An append-only password database (e.g. an audit log) that's validated incrementally: only the lines appended
+     * since the last update are read, and running totals are kept for each policy.
+     * <p>
+     * The offset and totals can be saved to (and loaded from) a state file, so a re-run carries on from where the
+     * last one stopped rather than re-reading the whole file.
+     */
+    static class PasswordLog
+    {
+        private static final String OFFSET_KEY = "offset";
+        private static final String CORRECT_KEY = ".correct";
+        private static final String INCORRECT_KEY = ".incorrect";
+
+        private final Path file;
+        private final PasswordPolicy[] policies;
+        private PasswordAudit[] totals;
+        private long offset;
+
+        /**
+         * Constructor
+         *
+         * @param file     the password database
+         * @param policies the policies to check each password against
+         */
+        PasswordLog( final Path file, final PasswordPolicy... policies )
+        {
+            this.file = file;
+            this.policies = policies;
+            this.totals = createAudits( NO_SAMPLE, policies.length );
+        }
+
+        /**
+         * Validates every complete line appended since the last update, adding them to the totals
+         * <p>
+         * A line without its line break yet is left for the next update. If the file is now shorter than the offset,
+         * it's assumed to have been replaced, and is validated again from the start.
+         *
+         * @return the number of bytes validated
+         * @throws IOException if the file can't be read
+         */
+        long update() throws IOException
+        {
+            try ( final FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) )
+            {
+                final long size = channel.size();
+                if ( size < offset )
+                {
+                    offset = 0;
+                    totals = createAudits( NO_SAMPLE, policies.length );
+                }
+
+                final long start = offset;
+                while ( offset < size )
+                {
+                    final MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, offset,
+                                                                 Math.min( size - offset, MAXIMUM_CHUNK_BYTES ) );
+
+                    // Stop after the last complete line
+                    int end = buffer.limit();
+                    while ( end > 0 && buffer.get( end - 1 ) != '\n' )
+                    {
+                        end--;
+                    }
+                    if ( end == 0 )
+                    {
+                        break;
+                    }
+                    combine( totals, evaluate( buffer, 0, end, NO_SAMPLE, policies ) );
+                    offset += end;
+                }
+                return offset - start;
+            }
+        }
+
+        /**
+         * @return the offset of the first byte not yet validated
+         */
+        long getOffset()
+        {
+            return offset;
+        }
+
+        /**
+         * @return the running totals for each policy, in the same order as the policies
+         */
+        PasswordAudit[] getTotals()
+        {
+            return totals;
+        }
+
+        /**
+         * Carries on from the offset and totals in the state file (if there is one)
+         *
+         * @param stateFile the state file
+         * @throws IOException if the state file can't be read
+         */
+        void load( final Path stateFile ) throws IOException
+        {
+            if ( !Files.exists( stateFile ) )
+            {
+                return;
+            }
+
+            final Properties state = new Properties();
+            try ( final InputStream input = Files.newInputStream( stateFile ) )
+            {
+                state.load( input );
+            }
+            setState( state );
+        }
+
+        /**
+         * Carries on from the offset and totals in the state
+         *
+         * @param state the state, as written by {@link #getState()}
+         */
+        void setState( final Properties state )
+        {
+            offset = Long.parseLong( state.getProperty( OFFSET_KEY, "0" ) );
+            for ( int i = 0; i < totals.length; i++ )
+            {
+                totals[ i ].correct = Long.parseLong( state.getProperty( i + CORRECT_KEY, "0" ) );
+                totals[ i ].incorrect = Long.parseLong( state.getProperty( i + INCORRECT_KEY, "0" ) );
+            }
+        }
+
+        /**
+         * Writes the offset and totals to the state file
+         *
+         * @param stateFile the state file
+         * @throws IOException if the state file can't be written
+         */
+        void save( final Path stateFile ) throws IOException
+        {
+            try ( final OutputStream output = Files.newOutputStream( stateFile ) )
+            {
+                getState().store( output, "Password audit of " + file );
+            }
+        }
+
+        /**
+         * @return the offset and totals, as properties
+         */
+        Properties getState()
+        {
+            final Properties state = new Properties();
+            state.setProperty( OFFSET_KEY, String.valueOf( offset ) );
+            for ( int i = 0; i < totals.length; i++ )
+            {
+                state.setProperty( i + CORRECT_KEY, String.valueOf( totals[ i ].getCorrect() ) );
+                state.setProperty( i + INCORRECT_KEY, String.valueOf( totals[ i ].getIncorrect() ) );
+            }
+            return state;
+        }
     }
 
     /* *************** *
@@ -234,9 +854,100 @@ public class Day2
      */
     private void testLogic()
     {
-        final List<String> exampleData = Arrays.asList( "1-3 a: abcde", "1-3 b: cdefg", "2-9 c: ccccccccc" );
+        final byte[] exampleData =
+                AOCUtils.toBytes( Arrays.asList( "1-3 a: abcde", "1-3 b: cdefg", "2-9 c: ccccccccc" ) );
+
+        assert evaluate( exampleData, NO_SAMPLE, FREQUENCY_POLICY )[ 0 ].getCorrect() == 2 : PART_1_TEST_FAILED;
+        assert evaluate( exampleData, NO_SAMPLE, POSITION_POLICY )[ 0 ].getCorrect() == 1 : PART_2_TEST_FAILED;
+
+        // Windows line endings and blank lines shouldn't affect the parsing
+        final byte[] windowsData = "1-3 a: abcde\r\n1-3 b: cdefg\r\n\r\n2-9 c: ccccccccc\r\n".getBytes(
+                StandardCharsets.US_ASCII );
+        assert evaluate( windowsData, NO_SAMPLE, FREQUENCY_POLICY )[ 0 ].getCorrect() == 2 : PART_1_TEST_FAILED;
+        assert evaluate( windowsData, NO_SAMPLE, POSITION_POLICY )[ 0 ].getIncorrect() == 2 : PART_2_TEST_FAILED;
+
+        // The sample of failing lines stops at its limit
+        final PasswordAudit audit = evaluate( exampleData, 1, POSITION_POLICY )[ 0 ];
+        assert audit.getIncorrect() == 2 : TEST_FAILED;
+        assert audit.getFailureSample().equals( Collections.singletonList( "1-3 b: cdefg" ) ) : TEST_FAILED;
+
+        // Any number of policies can be checked in the one pass (here, also 'no letter more than twice')
+        final PasswordPolicy noRepeatsPolicy = entry ->
+        {
+            for ( int i = 1; i <= entry.length(); i++ )
+            {
+                if ( entry.countOf( entry.letterAt( i ) ) > 2 )
+                {
+                    return false;
+                }
+            }
+            return true;
+        };
+        final PasswordAudit[] audits = evaluate( exampleData, NO_SAMPLE, FREQUENCY_POLICY, POSITION_POLICY,
+                                                 noRepeatsPolicy );
+        assert audits[ 0 ].getCorrect() == 2 && audits[ 1 ].getCorrect() == 1 : TEST_FAILED;
+        assert audits[ 2 ].getCorrect() == 2 : TEST_FAILED;
+
+        // However the file is split up, every line is validated exactly once (this needs a file, so only runs
+        // when assertions are enabled)
+        assert testFileChunking( windowsData ) : TEST_FAILED;
+    }
+
+    /**
+     * Checks that every line of the file is validated exactly once however many chunks it's split into, and that
+     * the log picks up lines as they're appended
+     *
+     * @param data the contents of the password database to test with
+     * @return true if the checks passed (a failing check trips its own assertion)
+     */
+    private static boolean testFileChunking( final byte[] data )
+    {
+        try
+        {
+            final Path file = Files.createTempFile( "day2", null );
+            try
+            {
+                Files.write( file, data );
+                for ( int chunks = 1; chunks <= data.length; chunks++ )
+                {
+                    final PasswordAudit[] chunkAudits =
+                            evaluateInParallel( file, chunks, 1, FREQUENCY_POLICY, POSITION_POLICY );
+                    assert chunkAudits[ 0 ].getCorrect() == 2 && chunkAudits[ 0 ].getIncorrect() == 1 : TEST_FAILED;
+                    assert chunkAudits[ 1 ].getCorrect() == 1 && chunkAudits[ 1 ].getIncorrect() == 2 : TEST_FAILED;
+                    assert chunkAudits[ 1 ].getFailureSample().equals( Collections.singletonList( "1-3 b: cdefg" ) )
+                            : TEST_FAILED;
+                }
+
+                // Appended lines are picked up by the next update, but a partial line waits for its line break
+                final PasswordLog log = new PasswordLog( file, FREQUENCY_POLICY, POSITION_POLICY );
+                final long initialBytes = log.update();
+                assert initialBytes == data.length : TEST_FAILED;
+                Files.write( file, "1-3 a: abcde\n2-9 c: cc".getBytes( StandardCharsets.US_ASCII ),
+                             StandardOpenOption.APPEND );
+                final long appendedBytes = log.update();
+                final long partialBytes = log.update();
+                assert appendedBytes == "1-3 a: abcde\n".length() && partialBytes == 0 : TEST_FAILED;
+                assert log.getTotals()[ 0 ].getCorrect() == 3 && log.getTotals()[ 1 ].getCorrect() == 2 : TEST_FAILED;
 
-        assert getIncorrectPasswords( 1, exampleData ).get( CORRECT_PASSWORDS_KEY ).size() == 2 : PART_1_TEST_FAILED;
-        assert getIncorrectPasswords( 2, exampleData ).get( CORRECT_PASSWORDS_KEY ).size() == 1 : PART_2_TEST_FAILED;
+                // A re-run carries on from the saved state
+                Files.write( file, "cccccc\n".getBytes( StandardCharsets.US_ASCII ), StandardOpenOption.APPEND );
+                final PasswordLog rerun = new PasswordLog( file, FREQUENCY_POLICY, POSITION_POLICY );
+                rerun.setState( log.getState() );
+                final long completedBytes = rerun.update();
+                assert completedBytes == "2-9 c: cccccccc\n".length() : TEST_FAILED;
+                assert rerun.getTotals()[ 0 ].getCorrect() == 4 && rerun.getTotals()[ 1 ].getCorrect() == 2
+                        : TEST_FAILED;
+
+                return true;
+            }
+            finally
+            {
+                Files.delete( file );
+            }
+        }
+        catch ( final IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
     }
 }
@@ -5,11 +5,21 @@
 
 import static constants.Constants.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 
 /**
@@ -82,6 +92,18 @@ import utils.AOCUtils;
 public class Day3
 {
     public static final char TREE = '#';
+    public static final char OPEN = '.';
+
+    // Maps with at least this many rows have part 1's slope counted in parallel, by row range
+    public static final int PARALLEL_THRESHOLD = 100_000;
+
+    // The slopes to check in part 2
+    static final List<Slope> PART_2_SLOPES = Arrays.asList(
+            new Slope( 1, 1 ),
+            new Slope( 3, 1 ),
+            new Slope( 5, 1 ),
+            new Slope( 7, 1 ),
+            new Slope( 1, 2 ) );
 
     /**
      * Constructor
@@ -91,8 +113,8 @@ public class Day3
         // Check the logic with the examples before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1() );
-        System.out.println( THE_ANSWER_IS_PT2 + part2() );
+        Answers.print( 1, this::part1 );
+        Answers.print( 2, this::part2 );
     }
 
     /**
@@ -102,12 +124,17 @@ public class Day3
      * <p>
      * Answer: 162
      */
-    private int part1()
+    private long part1()
     {
         // Set to TRUE to print the map
         final boolean printMap = false;
 
-        return countTrees( printMap, 3, 1, getData() );
+        final Forest mapOfTrees = getData();
+        if ( !printMap && mapOfTrees.getHeight() >= PARALLEL_THRESHOLD )
+        {
+            return countTreesInParallel( mapOfTrees, new Slope( 3, 1 ), ForkJoinPool.commonPool() );
+        }
+        return countTrees( printMap, 3, 1, mapOfTrees );
     }
 
 
@@ -132,14 +159,12 @@ public class Day3
      */
     private long part2()
     {
-
-        final long path1 = countTrees( false, 1, 1, getData() );
-        final long path2 = countTrees( false, 3, 1, getData() );
-        final long path3 = countTrees( false, 5, 1, getData() );
-        final long path4 = countTrees( false, 7, 1, getData() );
-        final long path5 = countTrees( false, 1, 2, getData() );
-
-        return path1 * path2 * path3 * path4 * path5;
+        long product = 1;
+        for ( final long trees : countTrees( getData(), PART_2_SLOPES ) )
+        {
+            product *= trees;
+        }
+        return product;
     }
 
     /**
@@ -151,8 +176,10 @@ public class Day3
      * @param mapOfTrees the map of tree data
      * @return the number of trees (#) encountered
      */
-    private int countTrees( final boolean printMap, final int right, final int down, final List<String> mapOfTrees )
+    private int countTrees( final boolean printMap, final int right, final int down, final Forest mapOfTrees )
     {
+        // The pattern repeats to the right, so the column just wraps around the width of the map
+        final int width = mapOfTrees.getWidth();
         int currentRow = 0;
         int currentCol = 0;
         int treeCount = 0;
@@ -160,22 +187,15 @@ public class Day3
         if ( printMap )
         {
             // Output first row;
-            System.out.println( mapOfTrees.get( 0 ) );
+            System.out.println( mapOfTrees.getRow( 0 ) );
         }
-        while ( currentRow < mapOfTrees.size() - 1 )
+        while ( currentRow + down < mapOfTrees.getHeight() )
         {
-            currentCol += right;
+            currentCol = ( currentCol + right ) % width;
             currentRow += down;
 
-            // Wrap the row if the next index is too long
-            String row = mapOfTrees.get( currentRow );
-            while ( !( currentCol < row.length() ) )
-            {
-                row += row;
-            }
-
             char icon = 'O';
-            if ( row.charAt( currentCol ) == TREE )
+            if ( mapOfTrees.isTree( currentRow, currentCol ) )
             {
                 treeCount++;
                 icon = 'X';
@@ -184,7 +204,7 @@ public class Day3
             if ( printMap )
             {
                 // Output next row
-                final char[] mapRow = row.toCharArray();
+                final char[] mapRow = mapOfTrees.getRow( currentRow );
                 mapRow[ currentCol ] = icon;
                 System.out.println( String.valueOf( mapRow ) );
             }
@@ -192,14 +212,593 @@ public class Day3
         return treeCount;
     }
 
+    /**
+     * Count the trees encountered on the map for each of the slopes, all in a single pass down the map
+     *
+     * @param mapOfTrees the map of tree data
+     * @param slopes     the slopes to follow
+     * @return the number of trees (#) encountered on each slope, in the same order as the slopes
+     */
+    static long[] countTrees( final Forest mapOfTrees, final List<Slope> slopes )
+    {
+        final SlopeScanner scanner = new SlopeScanner( slopes );
+        for ( int row = 0; row < mapOfTrees.getHeight(); row++ )
+        {
+            scanner.accept( mapOfTrees, row );
+        }
+        return scanner.getTreeCounts();
+    }
+
+    /**
+     * Count the trees encountered on a map read a row at a time, for each of the slopes
+     * <p>
+     * Only the row being read is ever held, so the map can be far bigger than the memory available.
+     *
+     * @param reader the map, one row per line
+     * @param slopes the slopes to follow
+     * @return the number of trees (#) encountered on each slope, in the same order as the slopes
+     * @throws IOException if the map can't be read
+     */
+    static long[] countTrees( final BufferedReader reader, final List<Slope> slopes ) throws IOException
+    {
+        final SlopeScanner scanner = new SlopeScanner( slopes );
+        String line;
+        while ( ( line = reader.readLine() ) != null )
+        {
+            if ( !line.isEmpty() )
+            {
+                scanner.accept( line );
+            }
+        }
+        return scanner.getTreeCounts();
+    }
+
+    /**
+     * Count the trees encountered on the map when following the slope, splitting the rows up across the pool
+     * <p>
+     * The column the slope is in on any of its rows can be worked out directly (it's the number of steps taken to
+     * get there times the right, modulo the width), so each range of rows can be counted independently.
+     *
+     * @param mapOfTrees the map of tree data
+     * @param slope      the slope to follow
+     * @param pool       the pool to count the trees with
+     * @return the number of trees (#) encountered
+     */
+    static long countTreesInParallel( final Forest mapOfTrees, final Slope slope, final ForkJoinPool pool )
+    {
+        return countTreesInParallel( mapOfTrees, slope, pool, RowRangeCount.CHUNK_SIZE );
+    }
+
+    /**
+     * Count the trees encountered on the map when following the slope, splitting the rows up across the pool
+     *
+     * @param mapOfTrees the map of tree data
+     * @param slope      the slope to follow
+     * @param pool       the pool to count the trees with
+     * @param chunkSize  ranges of no more steps than this are counted rather than split further
+     * @return the number of trees (#) encountered
+     */
+    static long countTreesInParallel( final Forest mapOfTrees,
+                                      final Slope slope,
+                                      final ForkJoinPool pool,
+                                      final int chunkSize )
+    {
+        final int steps = ( mapOfTrees.getHeight() - 1 ) / slope.getDown();
+        return pool.invoke( new RowRangeCount( mapOfTrees, slope, 1, steps + 1, chunkSize ) );
+    }
+
+    /**
+     * Counts the trees on every slope from right 1 to right maxRight and down 1 to down maxDown, to find the slopes
+     * with the fewest and most trees
+     * <p>
+     * Slopes whose rights differ by a whole width of the map cross the same squares, so each right is only counted
+     * once per column it can land in (i.e. modulo the width). The slopes with the same down share each pass down the
+     * map, and the passes are split up across the pool.
+     *
+     * @param mapOfTrees the map of tree data
+     * @param maxRight   the furthest right of the slopes to try
+     * @param maxDown    the furthest down of the slopes to try
+     * @param pool       the pool to count the trees with
+     * @return the number of trees on each slope
+     * @throws IllegalArgumentException if either bound is less than 1
+     */
+    static SlopeSearch searchSlopes( final Forest mapOfTrees,
+                                     final int maxRight,
+                                     final int maxDown,
+                                     final ForkJoinPool pool )
+    {
+        if ( maxRight < 1 || maxDown < 1 )
+        {
+            throw new IllegalArgumentException( "Invalid bounds: right " + maxRight + ", down " + maxDown );
+        }
+        final int width = mapOfTrees.getWidth();
+        final long[][] treeCounts = new long[ maxDown ][ width ];
+        final List<SlopeCount> tasks = new ArrayList<>();
+        for ( int down = 1; down <= maxDown; down++ )
+        {
+            // Every column is only needed once the rights wrap around the width
+            final int from = maxRight < width ? 1 : 0;
+            final int to = Math.min( maxRight + 1, width );
+            tasks.add( new SlopeCount( mapOfTrees, down, from, to, treeCounts[ down - 1 ] ) );
+        }
+        pool.invoke( ForkJoinTask.adapt( () -> ForkJoinTask.invokeAll( tasks ) ) );
+        return new SlopeSearch( width, maxRight, maxDown, treeCounts );
+    }
+
     /**
      * Get the data for the question
      *
-     * @return string list of the data
+     * @return the map of tree data
+     */
+    private Forest getData()
+    {
+        return new Forest( AOCUtils.getData( getClass().getName() ) );
+    }
+
+    /**
+     * The map of trees, packed into one bit per square (1 = tree) rather than a char per square.
+     * <p>
+     * Each row takes up a whole number of longs, so a square is found with a shift and a mask, and checking it is a
+     * single bit test.
      */
-    private List<String> getData()
+    static class Forest
     {
-        return AOCUtils.getData( getClass().getName() );
+        private final int width;
+        private final int height;
+        private final int longsPerRow;
+        private final long[] trees;
+
+        /**
+         * Constructor
+         *
+         * @param rows the map, one String per row
+         */
+        Forest( final List<String> rows )
+        {
+            height = rows.size();
+            width = height == 0 ? 0 : rows.get( 0 ).length();
+            longsPerRow = ( width + Long.SIZE - 1 ) / Long.SIZE;
+            trees = new long[ height * longsPerRow ];
+            for ( int row = 0; row < height; row++ )
+            {
+                final String line = rows.get( row );
+                for ( int col = 0; col < width; col++ )
+                {
+                    if ( line.charAt( col ) == TREE )
+                    {
+                        trees[ row * longsPerRow + col / Long.SIZE ] |= 1L << col;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param row the row
+         * @param col the column (within the width of the map)
+         * @return TRUE if there's a tree on the square
+         */
+        boolean isTree( final int row, final int col )
+        {
+            // Shifting a long only uses the lowest 6 bits of the column, i.e. the bit within the long
+            return ( trees[ row * longsPerRow + col / Long.SIZE ] & 1L << col ) != 0;
+        }
+
+        /**
+         * @param row the row
+         * @return the row as it appears in the input (for printing)
+         */
+        char[] getRow( final int row )
+        {
+            final char[] squares = new char[ width ];
+            for ( int col = 0; col < width; col++ )
+            {
+                squares[ col ] = isTree( row, col ) ? TREE : OPEN;
+            }
+            return squares;
+        }
+
+        /**
+         * @return the number of squares across the map (before it repeats)
+         */
+        int getWidth()
+        {
+            return width;
+        }
+
+        /**
+         * @return the number of rows in the map
+         */
+        int getHeight()
+        {
+            return height;
+        }
+    }
+
+    /**
+     * Follows any number of slopes down the map together, taking the rows one at a time from the top.
+     * <p>
+     * Each slope keeps its own column, which is moved on whenever a row that the slope lands on comes up, so the
+     * rows never need to be kept once they've been seen.
+     */
+    static class SlopeScanner
+    {
+        private final int[] rights;
+        private final int[] downs;
+        private final int[] columns;
+        private final long[] treeCounts;
+        private int width;
+        private int row;
+
+        /**
+         * Constructor
+         *
+         * @param slopes the slopes to follow
+         */
+        SlopeScanner( final List<Slope> slopes )
+        {
+            rights = new int[ slopes.size() ];
+            downs = new int[ slopes.size() ];
+            for ( int i = 0; i < rights.length; i++ )
+            {
+                rights[ i ] = slopes.get( i ).getRight();
+                downs[ i ] = slopes.get( i ).getDown();
+            }
+            columns = new int[ rights.length ];
+            treeCounts = new long[ rights.length ];
+        }
+
+        /**
+         * Takes the next row of the map
+         *
+         * @param line the row, as it appears in the input
+         */
+        void accept( final CharSequence line )
+        {
+            if ( row == 0 )
+            {
+                setWidth( line.length() );
+            }
+            else
+            {
+                for ( int i = 0; i < rights.length; i++ )
+                {
+                    if ( landsOnRow( i ) && line.charAt( columns[ i ] ) == TREE )
+                    {
+                        treeCounts[ i ]++;
+                    }
+                }
+            }
+            row++;
+        }
+
+        /**
+         * Takes the next row of the map
+         *
+         * @param mapOfTrees the map of tree data
+         * @param mapRow     the row of the map (the scanner's next row)
+         */
+        void accept( final Forest mapOfTrees, final int mapRow )
+        {
+            if ( row == 0 )
+            {
+                setWidth( mapOfTrees.getWidth() );
+            }
+            else
+            {
+                for ( int i = 0; i < rights.length; i++ )
+                {
+                    if ( landsOnRow( i ) && mapOfTrees.isTree( mapRow, columns[ i ] ) )
+                    {
+                        treeCounts[ i ]++;
+                    }
+                }
+            }
+            row++;
+        }
+
+        /**
+         * @return the number of trees (#) encountered on each slope so far, in the same order as the slopes
+         */
+        long[] getTreeCounts()
+        {
+            return treeCounts.clone();
+        }
+
+        /**
+         * Sets the width of the map (taken from the first row)
+         */
+        private void setWidth( final int mapWidth )
+        {
+            width = mapWidth;
+            for ( int i = 0; i < rights.length; i++ )
+            {
+                // Take whole widths out of the step up front, so the column only ever needs a single wrap
+                rights[ i ] %= width;
+            }
+        }
+
+        /**
+         * Moves the slope's column on, if the slope lands on the current row
+         *
+         * @param slope the index of the slope
+         * @return TRUE if the slope lands on the current row
+         */
+        private boolean landsOnRow( final int slope )
+        {
+            if ( row % downs[ slope ] != 0 )
+            {
+                return false;
+            }
+            columns[ slope ] += rights[ slope ];
+            if ( columns[ slope ] >= width )
+            {
+                columns[ slope ] -= width;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A fork-join task counting the trees on a range of the rows that a slope lands on
+     */
+    static class RowRangeCount extends RecursiveTask<Long>
+    {
+        // Ranges of no more steps than this are counted rather than split further
+        static final int CHUNK_SIZE = 4096;
+
+        private final Forest mapOfTrees;
+        private final Slope slope;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        /**
+         * Constructor
+         *
+         * @param mapOfTrees the map of tree data
+         * @param slope      the slope to follow
+         * @param from       the first step to count, i.e. the row slope.getDown() * from (inclusive)
+         * @param to         the last step to count (exclusive)
+         * @param chunkSize  ranges of no more steps than this are counted rather than split further
+         */
+        RowRangeCount( final Forest mapOfTrees,
+                       final Slope slope,
+                       final int from,
+                       final int to,
+                       final int chunkSize )
+        {
+            this.mapOfTrees = mapOfTrees;
+            this.slope = slope;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Long compute()
+        {
+            if ( to - from > chunkSize )
+            {
+                final int middle = ( from + to ) >>> 1;
+                final RowRangeCount later = new RowRangeCount( mapOfTrees, slope, middle, to, chunkSize );
+                later.fork();
+                return new RowRangeCount( mapOfTrees, slope, from, middle, chunkSize ).compute() + later.join();
+            }
+
+            final int width = mapOfTrees.getWidth();
+            final int right = slope.getRight() % width;
+            final int down = slope.getDown();
+
+            // The column on the first row of the range, after 'from' steps
+            int column = ( int ) ( ( long ) from * right % width );
+            long treeCount = 0;
+            for ( int step = from; step < to; step++ )
+            {
+                if ( mapOfTrees.isTree( step * down, column ) )
+                {
+                    treeCount++;
+                }
+                column += right;
+                if ( column >= width )
+                {
+                    column -= width;
+                }
+            }
+            return treeCount;
+        }
+    }
+
+    /**
+     * A fork-join task counting the trees on the slopes with one down and a range of rights (modulo the width)
+     */
+    static class SlopeCount extends RecursiveAction
+    {
+        // Ranges needing fewer squares checked than this are counted rather than split further
+        private static final int CHUNK_SIZE = 1 << 16;
+
+        private final Forest mapOfTrees;
+        private final int down;
+        private final int from;
+        private final int to;
+        private final long[] treeCounts;
+
+        /**
+         * Constructor
+         *
+         * @param mapOfTrees the map of tree data
+         * @param down       how many steps down the slopes take per iteration
+         * @param from       the first right to count (inclusive)
+         * @param to         the last right to count (exclusive)
+         * @param treeCounts where the number of trees on each slope is put (indexed by right)
+         */
+        SlopeCount( final Forest mapOfTrees, final int down, final int from, final int to, final long[] treeCounts )
+        {
+            this.mapOfTrees = mapOfTrees;
+            this.down = down;
+            this.from = from;
+            this.to = to;
+            this.treeCounts = treeCounts;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if ( to - from > 1 && ( long ) ( to - from ) * ( mapOfTrees.getHeight() / down ) > CHUNK_SIZE )
+            {
+                final int middle = ( from + to ) >>> 1;
+                invokeAll( new SlopeCount( mapOfTrees, down, from, middle, treeCounts ),
+                        new SlopeCount( mapOfTrees, down, middle, to, treeCounts ) );
+                return;
+            }
+
+            // One pass down the map for the whole range, with a column per right
+            final int width = mapOfTrees.getWidth();
+            final int[] columns = new int[ to - from ];
+            for ( int row = down; row < mapOfTrees.getHeight(); row += down )
+            {
+                for ( int i = 0; i < columns.length; i++ )
+                {
+                    columns[ i ] += from + i;
+                    if ( columns[ i ] >= width )
+                    {
+                        columns[ i ] -= width;
+                    }
+                    if ( mapOfTrees.isTree( row, columns[ i ] ) )
+                    {
+                        treeCounts[ from + i ]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of trees on every slope within a range of rights and downs
+     */
+    static class SlopeSearch
+    {
+        private final int width;
+        private final int maxRight;
+        private final int maxDown;
+
+        // Indexed by down - 1, then right modulo the width
+        private final long[][] treeCounts;
+
+        /**
+         * Constructor
+         *
+         * @param width      the width of the map
+         * @param maxRight   the furthest right of the slopes
+         * @param maxDown    the furthest down of the slopes
+         * @param treeCounts the number of trees on each slope
+         */
+        SlopeSearch( final int width, final int maxRight, final int maxDown, final long[][] treeCounts )
+        {
+            this.width = width;
+            this.maxRight = maxRight;
+            this.maxDown = maxDown;
+            this.treeCounts = treeCounts;
+        }
+
+        /**
+         * @param slope the slope (within the range searched)
+         * @return the number of trees (#) encountered on the slope
+         */
+        long getTreeCount( final Slope slope )
+        {
+            return treeCounts[ slope.getDown() - 1 ][ slope.getRight() % width ];
+        }
+
+        /**
+         * @return the slopes with the fewest trees
+         */
+        List<Slope> getFewest()
+        {
+            return getSlopesWith( -1 );
+        }
+
+        /**
+         * @return the slopes with the most trees
+         */
+        List<Slope> getMost()
+        {
+            return getSlopesWith( 1 );
+        }
+
+        /**
+         * @param direction -1 for the slopes with the fewest trees, 1 for the most
+         * @return the slopes (in order of down then right) with the extreme number of trees
+         */
+        private List<Slope> getSlopesWith( final int direction )
+        {
+            final List<Slope> slopes = new ArrayList<>();
+            long extreme = 0;
+            for ( int down = 1; down <= maxDown; down++ )
+            {
+                for ( int right = 1; right <= maxRight; right++ )
+                {
+                    final long trees = treeCounts[ down - 1 ][ right % width ];
+                    final int comparison = slopes.isEmpty() ? 0 : Long.compare( trees, extreme ) * direction;
+                    if ( comparison > 0 )
+                    {
+                        slopes.clear();
+                    }
+                    if ( comparison >= 0 )
+                    {
+                        extreme = trees;
+                        slopes.add( new Slope( right, down ) );
+                    }
+                }
+            }
+            return slopes;
+        }
+    }
+
+    /**
+     * A slope down the map, e.g. right 3, down 1
+     */
+    static class Slope
+    {
+        private final int right;
+        private final int down;
+
+        /**
+         * Constructor
+         *
+         * @param right how many steps to the right to take per iteration
+         * @param down  how many steps down to take per iteration
+         */
+        Slope( final int right, final int down )
+        {
+            if ( right < 0 || down < 1 )
+            {
+                throw new IllegalArgumentException( "Invalid slope: right " + right + ", down " + down );
+            }
+            this.right = right;
+            this.down = down;
+        }
+
+        /**
+         * @return how many steps to the right to take per iteration
+         */
+        int getRight()
+        {
+            return right;
+        }
+
+        /**
+         * @return how many steps down to take per iteration
+         */
+        int getDown()
+        {
+            return down;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "right " + right + ", down " + down;
+        }
     }
 
     /* *************** *
@@ -214,7 +813,7 @@ public class Day3
      */
     private void testLogic()
     {
-        final List<String> exampleData = Arrays.asList(
+        final String[] exampleRows = {
                 "..##.......",
                 "#...#...#..",
                 ".#....#..#.",
@@ -225,7 +824,9 @@ public class Day3
                 ".#........#",
                 "#.##...#...",
                 "#...##....#",
-                ".#..#...#.#" );
+                ".#..#...#.#" };
+        final Forest exampleData = new Forest( Arrays.asList( exampleRows ) );
+        assert String.valueOf( exampleData.getRow( 3 ) ).equals( "..#.#...#.#" ) : TEST_FAILED;
         assert countTrees( false, 3, 1, exampleData ) == 7 : PART_1_TEST_FAILED;
 
         final int part2 = countTrees( false, 1, 1, exampleData )
@@ -235,5 +836,65 @@ public class Day3
                 * countTrees( false, 1, 2, exampleData );
 
         assert part2 == 336 : PART_2_TEST_FAILED;
+
+        // All the slopes at once
+        assert Arrays.equals( countTrees( exampleData, PART_2_SLOPES ), new long[]{ 2, 7, 3, 4, 2 } )
+                : PART_2_TEST_FAILED;
+        try
+        {
+            final BufferedReader reader = new BufferedReader( new StringReader( String.join( "\n", exampleRows ) ) );
+            assert Arrays.equals( countTrees( reader, PART_2_SLOPES ), new long[]{ 2, 7, 3, 4, 2 } )
+                    : PART_2_TEST_FAILED;
+        }
+        catch ( final IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        // The search agrees with counting the slopes one at a time (this counts a hundred slopes on the common pool,
+        // so only runs when assertions are enabled)
+        assert testSlopeSearch( exampleData ) : TEST_FAILED;
+
+        // Splitting the rows up (here into ranges of a single step) gives the same count as following the slope
+        // down the map in one go
+        for ( final Slope slope : PART_2_SLOPES )
+        {
+            assert countTreesInParallel( exampleData, slope, ForkJoinPool.commonPool(), 1 )
+                   == countTrees( false, slope.getRight(), slope.getDown(), exampleData ) : TEST_FAILED;
+        }
+    }
+
+    /**
+     * Checks that searching the slopes finds the same tree counts as following each slope down the map on its own,
+     * and that the fewest and most are picked out correctly
+     *
+     * @param exampleData the map to search
+     * @return true if the checks passed (a failing check trips its own assertion)
+     */
+    private boolean testSlopeSearch( final Forest exampleData )
+    {
+        final SlopeSearch search = searchSlopes( exampleData, 25, 4, ForkJoinPool.commonPool() );
+        long fewest = Long.MAX_VALUE;
+        long most = Long.MIN_VALUE;
+        for ( int down = 1; down <= 4; down++ )
+        {
+            for ( int right = 1; right <= 25; right++ )
+            {
+                final long trees = countTrees( false, right, down, exampleData );
+                assert search.getTreeCount( new Slope( right, down ) ) == trees : TEST_FAILED;
+                fewest = Math.min( fewest, trees );
+                most = Math.max( most, trees );
+            }
+        }
+        for ( final Slope slope : search.getFewest() )
+        {
+            assert search.getTreeCount( slope ) == fewest : TEST_FAILED;
+        }
+        for ( final Slope slope : search.getMost() )
+        {
+            assert search.getTreeCount( slope ) == most : TEST_FAILED;
+        }
+        assert !search.getFewest().isEmpty() && !search.getMost().isEmpty() : TEST_FAILED;
+        return true;
     }
 }
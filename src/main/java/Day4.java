@@ -5,14 +5,14 @@
 
 import static constants.Constants.*;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 
 /**
@@ -77,8 +77,6 @@ import utils.AOCUtils;
  */
 public class Day4
 {
-    private final List<Passport> validPassports = new ArrayList<>();
-
     /**
      * Constructor
      */
@@ -87,8 +85,8 @@ public class Day4
         // Check the logic with the examples before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1() );
-        System.out.println( THE_ANSWER_IS_PT2 + part2() );
+        Answers.print( 1, this::part1 );
+        Answers.print( 2, this::part2 );
     }
 
     /**
@@ -182,134 +180,250 @@ public class Day4
     /**
      * Checks the validity of the passports.
      * This is the main entry method for retrieving the data and producing an answer
+     * <p>
+     * The passports are read straight from the bytes of the batch file, one record at a time, into a single re-used
+     * {@link Passport}.
      *
      * @param checkData if TRUE, the data will be validated as per part 2.
-     * @param passports the passports to check
+     * @param passports the batch file of passports to check
      * @return number of 'valid' passports
      */
-    private int checkPassports( final boolean checkData, final List<String> passports )
+    private int checkPassports( final boolean checkData, final byte[] passports )
     {
-        // Make sure the valid passport list is reset
-        validPassports.clear();
-
-        StringBuilder passportStringBuilder = new StringBuilder();
-        final List<String> passportsStrings = new ArrayList<>();
-
-        for ( final String line : passports )
-        {
-            passportStringBuilder.append( line ).append( SINGLE_SPACE );
-            if ( line.length() == 0 )
-            {
-                // Blank line indicates end of this passport entry, so add it as it is
-                passportsStrings.add( new String( passportStringBuilder ) );
-
-                // Clear it so the next entry can begin
-                passportStringBuilder = new StringBuilder();
-            }
-        }
-        // Add the final entry
-        passportsStrings.add( new String( passportStringBuilder ) );
-
-        // Validate the entries
-        validateAllPassports( processPassports( passportsStrings, checkData ) );
-
-        return validPassports.size();
-    }
-
-    /**
-     * Checks if a{@link Passport} is valid, and adds it to the 'valid' list if it is
-     *
-     * @param passports list of {@link Passport}s
-     */
-    private void validateAllPassports( final List<Passport> passports )
-    {
-        for ( final Passport passport : passports )
+        final Passport passport = new Passport();
+        int validPassports = 0;
+        int offset = 0;
+        while ( offset < passports.length )
         {
+            offset = passport.parse( passports, offset, checkData );
             if ( passport.isValid() )
             {
-                validPassports.add( passport );
+                validPassports++;
             }
         }
-    }
-
-    /**
-     * Converts the {@link String} passports into {@link Passport} objects
-     *
-     * @param passportsStrings the list of String passports
-     * @param checkData        if TRUE, the data will be validated as per part 2.
-     * @return a list of converted {@link Passport} objects
-     */
-    private List<Passport> processPassports( final List<String> passportsStrings, final boolean checkData )
-    {
-        final List<Passport> passports = new ArrayList<>();
-        for ( final String passportString : passportsStrings )
-        {
-            passports.add( new Passport( passportString, checkData ) );
-        }
-        return passports;
+        return validPassports;
     }
 
     /**
      * Get the data for the question
      *
-     * @return string list of the data
+     * @return the bytes of the batch file
      */
-    private List<String> getData()
+    private byte[] getData()
     {
-        return AOCUtils.getData( getClass().getName() );
+        return AOCUtils.getBytes( getClass().getName() );
     }
 
     /**
      * Inner object to define a 'Passport'
+     * <p>
+     * A passport is parsed straight from the batch file: each key is recognised from its three bytes, and only the
+     * position of each value within the batch file is kept, so parsing a passport allocates nothing and one
+     * instance can be re-used for every passport in the file.
      */
     static class Passport
     {
-        public static final String CENTIMETERS = "cm";
-        public static final String INCHES = "in";
-
-        // Fields that are 'required'
-        final List<String> requiredFields = Arrays.asList( "byr", "iyr", "eyr", "hgt", "hcl", "ecl", "pid" );
-
-        // Eye colours that are 'valid'
-        final List<String> validEyeColours = Arrays.asList( "amb", "blu", "brn", "gry", "grn", "hzl", "oth" );
-
-        private final Map<String, String> data = new HashMap<>();
-        private final List<String> missingFields = new ArrayList<>();
+        // The height units' two bytes, packed into an int
+        static final int CENTIMETERS = 'c' << 8 | 'm';
+        static final int INCHES = 'i' << 8 | 'n';
+        static final int NO_UNITS = 0;
+        private static final int UNIT_LENGTH = 2;
+
+        // Eye colours that are 'valid' (each is coded by its index)
+        static final List<String> EYE_COLOURS = Arrays.asList( "amb", "blu", "brn", "gry", "grn", "hzl", "oth" );
+        static final int UNKNOWN_EYE_COLOUR = -1;
+
+        // The 'valid' eye colours' three bytes, packed into an int
+        private static final int AMB = 'a' << 16 | 'm' << 8 | 'b';
+        private static final int BLU = 'b' << 16 | 'l' << 8 | 'u';
+        private static final int BRN = 'b' << 16 | 'r' << 8 | 'n';
+        private static final int GRY = 'g' << 16 | 'r' << 8 | 'y';
+        private static final int GRN = 'g' << 16 | 'r' << 8 | 'n';
+        private static final int HZL = 'h' << 16 | 'z' << 8 | 'l';
+        private static final int OTH = 'o' << 16 | 't' << 8 | 'h';
+        private static final int EYE_COLOUR_LENGTH = 3;
+
+        private static final int YEAR_DIGITS = 4;
+        private static final int PASSPORT_ID_DIGITS = 9;
+        private static final int HEX_COLOUR_LENGTH = 7;
+
+        // Longer numbers than this might not fit in an int
+        private static final int MAX_DIGITS = 9;
+        static final int NOT_A_NUMBER = -1;
+
+        // The field IDs, in the order of FIELDS
+        static final int BIRTH_YEAR = 0;
+        static final int ISSUE_YEAR = 1;
+        static final int EXPIRATION_YEAR = 2;
+        static final int HEIGHT = 3;
+        static final int HAIR_COLOUR = 4;
+        static final int EYE_COLOUR = 5;
+        static final int PASSPORT_ID = 6;
+        static final int COUNTRY_ID = 7;
+        static final int UNKNOWN_FIELD = -1;
+
+        // The field keys, indexed by field ID
+        static final List<String> FIELDS = Arrays.asList( "byr", "iyr", "eyr", "hgt", "hcl", "ecl", "pid", "cid" );
+
+        // Each key's three bytes, packed into an int
+        private static final int BYR_KEY = 'b' << 16 | 'y' << 8 | 'r';
+        private static final int IYR_KEY = 'i' << 16 | 'y' << 8 | 'r';
+        private static final int EYR_KEY = 'e' << 16 | 'y' << 8 | 'r';
+        private static final int HGT_KEY = 'h' << 16 | 'g' << 8 | 't';
+        private static final int HCL_KEY = 'h' << 16 | 'c' << 8 | 'l';
+        private static final int ECL_KEY = 'e' << 16 | 'c' << 8 | 'l';
+        private static final int PID_KEY = 'p' << 16 | 'i' << 8 | 'd';
+        private static final int CID_KEY = 'c' << 16 | 'i' << 8 | 'd';
+
+        private static final int KEY_LENGTH = 3;
+
+        // Fields that are 'required', as a bit per field ID
+        static final int REQUIRED_FIELDS = 1 << BIRTH_YEAR | 1 << ISSUE_YEAR | 1 << EXPIRATION_YEAR | 1 << HEIGHT
+                                           | 1 << HAIR_COLOUR | 1 << EYE_COLOUR | 1 << PASSPORT_ID;
+
+        // Where each field's value is in the batch file (indexed by field ID)
+        private byte[] source;
+        private final int[] valueStarts = new int[ FIELDS.size() ];
+        private final int[] valueEnds = new int[ FIELDS.size() ];
+
+        // The fields the passport has, as a bit per field ID
+        private int presentFields;
         private boolean valid;
 
         /**
-         * Constructor to convert the key/value strings into a Map
+         * Parses the passport starting at the given offset of the batch file into this passport, then validates it
          *
-         * @param passportData the String data
-         * @param checkData    if TRUE, the data will be validated as per part 2.
+         * @param bytes     the batch file
+         * @param offset    the index of the first byte of the passport
+         * @param checkData if TRUE, the data will be validated as per part 2.
+         * @return the index of the first byte after the passport (and the blank line ending it)
          */
-        public Passport( final String passportData, final boolean checkData )
+        int parse( final byte[] bytes, final int offset, final boolean checkData )
         {
-            final String[] keyValueStrings = passportData.split( SINGLE_SPACE );
-            for ( final String keyValueString : keyValueStrings )
+            source = bytes;
+            presentFields = 0;
+            valid = false;
+
+            // Fields are separated by spaces or line breaks; a blank line ends the passport
+            int position = offset;
+            int lineBreaks = 0;
+            while ( position < bytes.length )
             {
-                final String[] keyValuePair = keyValueString.split( COLON );
+                final byte current = bytes[ position ];
+                if ( current == '\n' )
+                {
+                    position++;
+                    if ( ++lineBreaks == 2 )
+                    {
+                        break;
+                    }
+                }
+                else if ( isSeparator( current ) )
                 {
-                    data.put( keyValuePair[ 0 ], keyValuePair[ 1 ] );
+                    position++;
+                }
+                else
+                {
+                    lineBreaks = 0;
+                    position = parseField( bytes, position );
                 }
             }
+
             validate( checkData );
+            return position;
         }
 
         /**
-         * Must contain all required fields and (part 2 only) pass validation for each field.
+         * Parses the 'key:value' field starting at the given position, keeping the position of the value if the key
+         * is a known one
+         *
+         * @param bytes    the batch file
+         * @param position the index of the first byte of the field
+         * @return the index of the first byte after the field
          */
-        private void validate( final boolean checkData )
+        private int parseField( final byte[] bytes, final int position )
         {
-            for ( final String field : requiredFields )
+            final int keyStart = position;
+            int end = position;
+            while ( end < bytes.length && !isSeparator( bytes[ end ] ) )
+            {
+                end++;
+            }
+
+            if ( end - keyStart > KEY_LENGTH && bytes[ keyStart + KEY_LENGTH ] == ':' )
             {
-                if ( !data.containsKey( field ) )
+                final int keyCode = bytes[ keyStart ] << 16 | bytes[ keyStart + 1 ] << 8 | bytes[ keyStart + 2 ];
+                final int field = getField( keyCode );
+                if ( field != UNKNOWN_FIELD )
                 {
-                    missingFields.add( field );
+                    valueStarts[ field ] = keyStart + KEY_LENGTH + 1;
+                    valueEnds[ field ] = end;
+                    presentFields |= 1 << field;
                 }
             }
+            return end;
+        }
 
-            if ( missingFields.isEmpty() )
+        /**
+         * @param keyCode the three bytes of the key, packed into an int
+         * @return the ID of the field with the key, or {@link #UNKNOWN_FIELD}
+         */
+        private static int getField( final int keyCode )
+        {
+            switch ( keyCode )
+            {
+                case BYR_KEY:
+                    return BIRTH_YEAR;
+                case IYR_KEY:
+                    return ISSUE_YEAR;
+                case EYR_KEY:
+                    return EXPIRATION_YEAR;
+                case HGT_KEY:
+                    return HEIGHT;
+                case HCL_KEY:
+                    return HAIR_COLOUR;
+                case ECL_KEY:
+                    return EYE_COLOUR;
+                case PID_KEY:
+                    return PASSPORT_ID;
+                case CID_KEY:
+                    return COUNTRY_ID;
+                default:
+                    return UNKNOWN_FIELD;
+            }
+        }
+
+        /**
+         * @return TRUE if the byte separates one field from the next
+         */
+        private static boolean isSeparator( final byte value )
+        {
+            return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+        }
+
+        /**
+         * @return the fields the passport has, as a bit per field ID
+         */
+        int getPresentFields()
+        {
+            return presentFields;
+        }
+
+        /**
+         * @param field the field ID
+         * @return TRUE if the passport has the field
+         */
+        boolean hasField( final int field )
+        {
+            return ( presentFields & 1 << field ) != 0;
+        }
+
+        /**
+         * Must contain all required fields and (part 2 only) pass validation for each field.
+         */
+        private void validate( final boolean checkData )
+        {
+            if ( ( presentFields & REQUIRED_FIELDS ) == REQUIRED_FIELDS )
             {
                 if ( checkData )
                 {
@@ -337,72 +451,201 @@ public class Day4
          */
         public boolean validateData()
         {
-            // Get fields to validate
-            final int birthYear = Integer.parseInt( data.get( "byr" ) );
-            final int issuerYear = Integer.parseInt( data.get( "iyr" ) );
-            final int expirationYear = Integer.parseInt( data.get( "eyr" ) );
+            /*
+             * byr (Birth Year) - four digits; at least 1920 and at most 2002.
+             * iyr (Issue Year) - four digits; at least 2010 and at most 2020.
+             * eyr (Expiration Year) - four digits; at least 2020 and at most 2030.
+             */
+            if ( !isInRange( getYear( BIRTH_YEAR ), 1920, 2002 )
+                    || !isInRange( getYear( ISSUE_YEAR ), 2010, 2020 )
+                    || !isInRange( getYear( EXPIRATION_YEAR ), 2020, 2030 ) )
+            {
+                return false;
+            }
 
-            final String height = data.get( "hgt" );
-            final String heightUnits = height.substring( height.length() - 2 );
+            /*
+             * hgt (Height) - a number followed by either cm or in:
+             * If cm, the number must be at least 150 and at most 193.
+             * If in, the number must be at least 59 and at most 76.
+             */
+            final int height = getHeight();
+            final int heightUnits = getHeightUnits();
+            if ( !( heightUnits == CENTIMETERS && isInRange( height, 150, 193 )
+                    || heightUnits == INCHES && isInRange( height, 59, 76 ) ) )
+            {
+                return false;
+            }
 
-            // Check we have a valid height unit
-            if ( heightUnits.matches( "(in|cm)" ) )
+            /*
+             * hcl (Hair Color) - a # followed by exactly six characters 0-9 or a-f.
+             */
+            if ( getHairColour() == NOT_A_NUMBER )
             {
-                final int heightValue = Integer.parseInt( height.substring( 0, height.length() - 2 ) );
+                return false;
+            }
 
-                final String hairColour = data.get( "hcl" );
-                final String eyeColor = data.get( "ecl" );
-                final String passportId = data.get( "pid" );
+            /*
+             * ecl (Eye Color) - exactly one of: amb blu brn gry grn hzl oth.
+             */
+            if ( getEyeColour() == UNKNOWN_EYE_COLOUR )
+            {
+                return false;
+            }
 
+            /*
+             * pid (Passport ID) - a nine-digit number, including leading zeroes.
+             */
+            return getPassportId() != NOT_A_NUMBER;
+        }
 
-                /*
-                 * byr (Birth Year) - four digits; at least 1920 and at most 2002.
-                 * iyr (Issue Year) - four digits; at least 2010 and at most 2020.
-                 * eyr (Expiration Year) - four digits; at least 2020 and at most 2030.
-                 */
-                if ( isBetween( birthYear, 1920, 2002 )
-                        || isBetween( issuerYear, 2010, 2020 )
-                        || isBetween( expirationYear, 2020, 2030 ) )
-                {
-                    return false;
-                }
+        /**
+         * @param field the field ID of one of the years
+         * @return the year, or {@link #NOT_A_NUMBER} if it's missing or isn't four digits
+         */
+        int getYear( final int field )
+        {
+            return readFixedNumber( field, YEAR_DIGITS );
+        }
 
-                /*
-                 * hgt (Height) - a number followed by either cm or in:
-                 * If cm, the number must be at least 150 and at most 193.
-                 * If in, the number must be at least 59 and at most 76.
-                 */
-                if ( heightUnits.equals( CENTIMETERS ) && isBetween( heightValue, 150, 193 ) )
+        /**
+         * @return the height (in its units), or {@link #NOT_A_NUMBER} if it's missing or isn't a number and units
+         */
+        int getHeight()
+        {
+            final int unitStart = valueEnds[ HEIGHT ] - UNIT_LENGTH;
+            if ( !hasField( HEIGHT ) || unitStart <= valueStarts[ HEIGHT ] )
+            {
+                return NOT_A_NUMBER;
+            }
+            return readNumber( valueStarts[ HEIGHT ], unitStart );
+        }
+
+        /**
+         * @return the units of the height ({@link #CENTIMETERS} or {@link #INCHES}), or {@link #NO_UNITS}
+         */
+        int getHeightUnits()
+        {
+            final int unitStart = valueEnds[ HEIGHT ] - UNIT_LENGTH;
+            if ( !hasField( HEIGHT ) || unitStart <= valueStarts[ HEIGHT ] )
+            {
+                return NO_UNITS;
+            }
+            final int heightUnits = source[ unitStart ] << 8 | source[ unitStart + 1 ];
+            return heightUnits == CENTIMETERS || heightUnits == INCHES ? heightUnits : NO_UNITS;
+        }
+
+        /**
+         * @return the hair colour as 0xRRGGBB, or {@link #NOT_A_NUMBER} if it's missing or isn't a # followed by
+         * exactly six characters 0-9 or a-f
+         */
+        int getHairColour()
+        {
+            final int start = valueStarts[ HAIR_COLOUR ];
+            if ( !hasField( HAIR_COLOUR ) || valueEnds[ HAIR_COLOUR ] - start != HEX_COLOUR_LENGTH
+                    || source[ start ] != '#' )
+            {
+                return NOT_A_NUMBER;
+            }
+            int colour = 0;
+            for ( int i = start + 1; i < valueEnds[ HAIR_COLOUR ]; i++ )
+            {
+                final byte value = source[ i ];
+                if ( value >= '0' && value <= '9' )
                 {
-                    return false;
+                    colour = colour << 4 | value - '0';
                 }
-                else if ( heightUnits.equals( INCHES ) && isBetween( heightValue, 59, 76 ) )
+                else if ( value >= 'a' && value <= 'f' )
                 {
-                    return false;
+                    colour = colour << 4 | value - 'a' + 10;
                 }
-
-                /*
-                 * hcl (Hair Color) - a # followed by exactly six characters 0-9 or a-f.
-                 */
-                if ( !hairColour.matches( "(#[0-9a-f]{6})" ) )
+                else
                 {
-                    return false;
+                    return NOT_A_NUMBER;
                 }
+            }
+            return colour;
+        }
+
+        /**
+         * @return the index of the eye colour in {@link #EYE_COLOURS}, or {@link #UNKNOWN_EYE_COLOUR} if it's missing
+         * or isn't exactly one of: amb blu brn gry grn hzl oth
+         */
+        int getEyeColour()
+        {
+            final int start = valueStarts[ EYE_COLOUR ];
+            if ( !hasField( EYE_COLOUR ) || valueEnds[ EYE_COLOUR ] - start != EYE_COLOUR_LENGTH )
+            {
+                return UNKNOWN_EYE_COLOUR;
+            }
+            switch ( source[ start ] << 16 | source[ start + 1 ] << 8 | source[ start + 2 ] )
+            {
+                case AMB:
+                    return 0;
+                case BLU:
+                    return 1;
+                case BRN:
+                    return 2;
+                case GRY:
+                    return 3;
+                case GRN:
+                    return 4;
+                case HZL:
+                    return 5;
+                case OTH:
+                    return 6;
+                default:
+                    return UNKNOWN_EYE_COLOUR;
+            }
+        }
 
-                /*
-                 * ecl (Eye Color) - exactly one of: amb blu brn gry grn hzl oth.
-                 */
-                if ( !validEyeColours.contains( eyeColor ) )
+        /**
+         * @return the passport ID, or {@link #NOT_A_NUMBER} if it's missing or isn't nine digits
+         */
+        int getPassportId()
+        {
+            return readFixedNumber( PASSPORT_ID, PASSPORT_ID_DIGITS );
+        }
+
+        /**
+         * Reads a field's value as a number with a fixed number of digits
+         *
+         * @param field  the field ID
+         * @param digits the number of digits the value must have
+         * @return the number, or {@link #NOT_A_NUMBER} if the field is missing or isn't exactly that many digits
+         */
+        private int readFixedNumber( final int field, final int digits )
+        {
+            if ( !hasField( field ) || valueEnds[ field ] - valueStarts[ field ] != digits )
+            {
+                return NOT_A_NUMBER;
+            }
+            return readNumber( valueStarts[ field ], valueEnds[ field ] );
+        }
+
+        /**
+         * Reads a range of the batch file as a number
+         *
+         * @param start the index of the first digit
+         * @param end   the index after the last digit
+         * @return the number, or {@link #NOT_A_NUMBER} if the range isn't all digits (or is too long to be an int)
+         */
+        private int readNumber( final int start, final int end )
+        {
+            if ( end <= start || end - start > MAX_DIGITS )
+            {
+                return NOT_A_NUMBER;
+            }
+            int number = 0;
+            for ( int i = start; i < end; i++ )
+            {
+                final int digit = source[ i ] - '0';
+                if ( digit < 0 || digit > 9 )
                 {
-                    return false;
+                    return NOT_A_NUMBER;
                 }
-
-                /*
-                 * pid (Passport ID) - a nine-digit number, including leading zeroes.
-                 */
-                return passportId.matches( "([0-9]{9})" );
+                number = number * 10 + digit;
             }
-            return false;
+            return number;
         }
 
         /**
@@ -413,9 +656,9 @@ public class Day4
          * @param upper          the upper boundary (inclusive)
          * @return TRUE if the integerToCheck is at least the lower value, and at most the upper value
          */
-        private boolean isBetween( final int integerToCheck, final int lower, final int upper )
+        private static boolean isInRange( final int integerToCheck, final int lower, final int upper )
         {
-            return integerToCheck < lower || integerToCheck > upper;
+            return integerToCheck >= lower && integerToCheck <= upper;
         }
 
         /**
@@ -429,6 +672,242 @@ public class Day4
         }
     }
 
+    /**
+     * A batch of passports parsed once into columns (a primitive array per field), so that any number of queries can
+     * be run over the batch without parsing it again.
+     * <p>
+     * Each query is a tight loop over one or two columns, which gives a bitset of the matching passports (bit n for
+     * the nth passport); queries are combined by combining their bitsets with {@link BitSet#and(BitSet)} or
+     * {@link BitSet#or(BitSet)}. Values that are missing or badly formed are stored as
+     * {@link Passport#NOT_A_NUMBER} (or {@link Passport#UNKNOWN_EYE_COLOUR}), so they never match.
+     */
+    static class PassportStore
+    {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private int size;
+        private int[] presentFields = new int[ INITIAL_CAPACITY ];
+        private int[] birthYears = new int[ INITIAL_CAPACITY ];
+        private int[] issueYears = new int[ INITIAL_CAPACITY ];
+        private int[] expirationYears = new int[ INITIAL_CAPACITY ];
+        private int[] heights = new int[ INITIAL_CAPACITY ];
+        private int[] heightUnits = new int[ INITIAL_CAPACITY ];
+
+        // 0xRRGGBB
+        private int[] hairColours = new int[ INITIAL_CAPACITY ];
+
+        // Index in Passport.EYE_COLOURS
+        private byte[] eyeColours = new byte[ INITIAL_CAPACITY ];
+        private int[] passportIds = new int[ INITIAL_CAPACITY ];
+
+        /**
+         * Constructor
+         *
+         * @param batch the batch file of passports
+         */
+        PassportStore( final byte[] batch )
+        {
+            final Passport passport = new Passport();
+            int offset = 0;
+            while ( offset < batch.length )
+            {
+                offset = passport.parse( batch, offset, false );
+                if ( passport.getPresentFields() != 0 )
+                {
+                    add( passport );
+                }
+            }
+        }
+
+        /**
+         * Adds the passport's values to the end of each column
+         *
+         * @param passport the passport
+         */
+        private void add( final Passport passport )
+        {
+            if ( size == presentFields.length )
+            {
+                final int capacity = size * 2;
+                presentFields = Arrays.copyOf( presentFields, capacity );
+                birthYears = Arrays.copyOf( birthYears, capacity );
+                issueYears = Arrays.copyOf( issueYears, capacity );
+                expirationYears = Arrays.copyOf( expirationYears, capacity );
+                heights = Arrays.copyOf( heights, capacity );
+                heightUnits = Arrays.copyOf( heightUnits, capacity );
+                hairColours = Arrays.copyOf( hairColours, capacity );
+                eyeColours = Arrays.copyOf( eyeColours, capacity );
+                passportIds = Arrays.copyOf( passportIds, capacity );
+            }
+            presentFields[ size ] = passport.getPresentFields();
+            birthYears[ size ] = passport.getYear( Passport.BIRTH_YEAR );
+            issueYears[ size ] = passport.getYear( Passport.ISSUE_YEAR );
+            expirationYears[ size ] = passport.getYear( Passport.EXPIRATION_YEAR );
+            heights[ size ] = passport.getHeight();
+            heightUnits[ size ] = passport.getHeightUnits();
+            hairColours[ size ] = passport.getHairColour();
+            eyeColours[ size ] = ( byte ) passport.getEyeColour();
+            passportIds[ size ] = passport.getPassportId();
+            size++;
+        }
+
+        /**
+         * @return the number of passports in the batch
+         */
+        int size()
+        {
+            return size;
+        }
+
+        /**
+         * @param fields the fields, as a bit per field ID (e.g. {@link Passport#REQUIRED_FIELDS})
+         * @return the passports that have all the fields
+         */
+        BitSet withFields( final int fields )
+        {
+            final long[] matches = new long[ getWordCount() ];
+            for ( int i = 0; i < size; i++ )
+            {
+                matches[ i >>> 6 ] |= ( ( presentFields[ i ] & fields ) == fields ? 1L : 0L ) << i;
+            }
+            return BitSet.valueOf( matches );
+        }
+
+        /**
+         * @param lower the earliest year (inclusive)
+         * @param upper the latest year (inclusive)
+         * @return the passports with a birth year in the range
+         */
+        BitSet bornBetween( final int lower, final int upper )
+        {
+            return inRange( birthYears, lower, upper );
+        }
+
+        /**
+         * @param lower the earliest year (inclusive)
+         * @param upper the latest year (inclusive)
+         * @return the passports with an issue year in the range
+         */
+        BitSet issuedBetween( final int lower, final int upper )
+        {
+            return inRange( issueYears, lower, upper );
+        }
+
+        /**
+         * @param lower the earliest year (inclusive)
+         * @param upper the latest year (inclusive)
+         * @return the passports with an expiration year in the range
+         */
+        BitSet expiringBetween( final int lower, final int upper )
+        {
+            return inRange( expirationYears, lower, upper );
+        }
+
+        /**
+         * @param units the units ({@link Passport#CENTIMETERS} or {@link Passport#INCHES})
+         * @param lower the shortest height (inclusive)
+         * @param upper the tallest height (inclusive)
+         * @return the passports with a height in the given units and range
+         */
+        BitSet heightBetween( final int units, final int lower, final int upper )
+        {
+            final long[] matches = new long[ getWordCount() ];
+            for ( int i = 0; i < size; i++ )
+            {
+                final int height = heights[ i ];
+                matches[ i >>> 6 ] |=
+                        ( heightUnits[ i ] == units && height >= lower && height <= upper ? 1L : 0L ) << i;
+            }
+            return BitSet.valueOf( matches );
+        }
+
+        /**
+         * @return the passports with a hair colour that's a # followed by exactly six characters 0-9 or a-f
+         */
+        BitSet withHairColour()
+        {
+            return inRange( hairColours, 0, 0xFFFFFF );
+        }
+
+        /**
+         * @param colours the eye colours (any of: amb blu brn gry grn hzl oth)
+         * @return the passports with any of the eye colours
+         */
+        BitSet withEyeColour( final String... colours )
+        {
+            int colourMask = 0;
+            for ( final String colour : colours )
+            {
+                final int code = Passport.EYE_COLOURS.indexOf( colour );
+                if ( code == Passport.UNKNOWN_EYE_COLOUR )
+                {
+                    throw new IllegalArgumentException( "Unknown eye colour: " + colour );
+                }
+                colourMask |= 1 << code;
+            }
+
+            final long[] matches = new long[ getWordCount() ];
+            for ( int i = 0; i < size; i++ )
+            {
+                // An unknown colour (-1) shifts the mask right by 31 places, leaving only its unused top bit
+                matches[ i >>> 6 ] |= ( long ) ( colourMask >>> eyeColours[ i ] & 1 ) << i;
+            }
+            return BitSet.valueOf( matches );
+        }
+
+        /**
+         * @return the passports with a passport ID that's a nine-digit number
+         */
+        BitSet withPassportId()
+        {
+            return inRange( passportIds, 0, Integer.MAX_VALUE );
+        }
+
+        /**
+         * @return the passports that have all required fields and valid values (as per part 2)
+         */
+        BitSet valid()
+        {
+            final BitSet heights = heightBetween( Passport.CENTIMETERS, 150, 193 );
+            heights.or( heightBetween( Passport.INCHES, 59, 76 ) );
+
+            final BitSet valid = withFields( Passport.REQUIRED_FIELDS );
+            valid.and( bornBetween( 1920, 2002 ) );
+            valid.and( issuedBetween( 2010, 2020 ) );
+            valid.and( expiringBetween( 2020, 2030 ) );
+            valid.and( heights );
+            valid.and( withHairColour() );
+            valid.and( withEyeColour( Passport.EYE_COLOURS.toArray( new String[ 0 ] ) ) );
+            valid.and( withPassportId() );
+            return valid;
+        }
+
+        /**
+         * @param column the column to check
+         * @param lower  the lowest value (inclusive)
+         * @param upper  the highest value (inclusive)
+         * @return the passports whose value in the column is in the range
+         */
+        private BitSet inRange( final int[] column, final int lower, final int upper )
+        {
+            final long[] matches = new long[ getWordCount() ];
+            for ( int i = 0; i < size; i++ )
+            {
+                final int value = column[ i ];
+                matches[ i >>> 6 ] |= ( value >= lower && value <= upper ? 1L : 0L ) << i;
+            }
+            return BitSet.valueOf( matches );
+        }
+
+        /**
+         * @return the number of longs needed for a bit per passport
+         */
+        private int getWordCount()
+        {
+            return ( size + Long.SIZE - 1 ) / Long.SIZE;
+        }
+    }
+
     /* *************** *
      *     TESTS       *
      * *************** */
@@ -441,7 +920,7 @@ public class Day4
      */
     private void testLogic()
     {
-        final List<String> exampleData = Arrays.asList(
+        final byte[] exampleData = AOCUtils.toBytes( Arrays.asList(
                 "ecl:gry pid:860033327 eyr:2020 hcl:#fffffd",
                 "byr:1937 iyr:2017 cid:147 hgt:183cm",
                 "",
@@ -454,11 +933,25 @@ public class Day4
                 "hgt:179cm",
                 "",
                 "hcl:#cfa07d eyr:2025 pid:166559648",
-                "iyr:2011 ecl:brn hgt:59in" );
+                "iyr:2011 ecl:brn hgt:59in" ) );
         assert checkPassports( false, exampleData ) == 2 : TEST_FAILED;
 
+        // The second passport is only missing hgt, and the fourth is missing byr (as well as the optional cid)
+        final Passport passport = new Passport();
+        final int secondPassport = passport.parse( exampleData, 0, false );
+        final int thirdPassport = passport.parse( exampleData, secondPassport, false );
+        assert ( Passport.REQUIRED_FIELDS & ~passport.getPresentFields() ) == 1 << Passport.HEIGHT : TEST_FAILED;
+        passport.parse( exampleData, passport.parse( exampleData, thirdPassport, false ), false );
+        assert !passport.hasField( Passport.BIRTH_YEAR ) && !passport.hasField( Passport.COUNTRY_ID )
+               && !passport.isValid() : TEST_FAILED;
+
+        // Windows line endings shouldn't affect the parsing
+        final byte[] windowsData = new String( exampleData, StandardCharsets.US_ASCII ).replace( "\n", "\r\n" )
+                .getBytes( StandardCharsets.US_ASCII );
+        assert checkPassports( false, windowsData ) == 2 : TEST_FAILED;
+
         // All these should be invalid
-        final List<String> invalidPassports = Arrays.asList(
+        final byte[] invalidPassports = AOCUtils.toBytes( Arrays.asList(
                 "eyr:1972 cid:100",
                 "hcl:#18171d ecl:amb hgt:170 pid:186cm iyr:2018 byr:1926",
                 "",
@@ -471,11 +964,11 @@ public class Day4
                 "",
                 "hgt:59cm ecl:zzz",
                 "eyr:2038 hcl:74454a iyr:2023",
-                "pid:3556412378 byr:2007" );
+                "pid:3556412378 byr:2007" ) );
         assert checkPassports( true, invalidPassports ) == 0 : TEST_FAILED;
 
         // All these should be valid
-        final List<String> validPassports = Arrays.asList(
+        final byte[] validPassports = AOCUtils.toBytes( Arrays.asList(
                 "pid:087499704 hgt:74in ecl:grn iyr:2012 eyr:2030 byr:1980",
                 "hcl:#623a2f",
                 "",
@@ -487,8 +980,36 @@ public class Day4
                 "pid:545766238 ecl:hzl",
                 "eyr:2022",
                 "",
-                "iyr:2010 hgt:158cm hcl:#b6652a ecl:blu byr:1944 eyr:2021 pid:093154719" );
+                "iyr:2010 hgt:158cm hcl:#b6652a ecl:blu byr:1944 eyr:2021 pid:093154719" ) );
         assert checkPassports( true, validPassports ) == 4 : TEST_FAILED;
+
+        // The columnar store gives the same answers, and any other query (e.g. born before 1950 with green eyes)
+        assert new PassportStore( exampleData ).withFields( Passport.REQUIRED_FIELDS ).cardinality() == 2 : TEST_FAILED;
+        assert new PassportStore( invalidPassports ).valid().isEmpty() : TEST_FAILED;
+        final PassportStore store = new PassportStore( validPassports );
+        assert store.size() == 4 && store.valid().cardinality() == 4 : TEST_FAILED;
+        final BitSet oldGreenEyes = store.bornBetween( 0, 1949 );
+        oldGreenEyes.and( store.withEyeColour( "grn" ) );
+        assert oldGreenEyes.isEmpty() : TEST_FAILED;
+        final BitSet oldOrBlueEyes = store.bornBetween( 0, 1949 );
+        oldOrBlueEyes.or( store.withEyeColour( "blu" ) );
+        assert oldOrBlueEyes.equals( BitSet.valueOf( new long[]{ 0b1010 } ) ) : TEST_FAILED;
+
+        // The example values, each in an otherwise valid passport
+        final String validPassport = "pid:087499704 hgt:74in ecl:grn iyr:2012 eyr:2030 byr:1980 hcl:#623a2f ";
+        final String[] validValues = { "byr:2002", "hgt:60in", "hgt:190cm", "hcl:#123abc", "ecl:brn", "pid:000000001" };
+        final String[] invalidValues = { "byr:2003", "hgt:190in", "hgt:190", "hcl:#123abz", "hcl:123abc", "ecl:wat",
+                "pid:0123456789" };
+        for ( final String value : validValues )
+        {
+            assert checkPassports( true, ( validPassport + value ).getBytes( StandardCharsets.US_ASCII ) ) == 1
+                    : TEST_FAILED;
+        }
+        for ( final String value : invalidValues )
+        {
+            assert checkPassports( true, ( validPassport + value ).getBytes( StandardCharsets.US_ASCII ) ) == 0
+                    : TEST_FAILED;
+        }
     }
 }
 
@@ -11,6 +11,7 @@ import java.util.List;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 
 /**
@@ -81,8 +82,8 @@ public class Day5
         // Check the logic with the example before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1( getData() ) );
-        System.out.println( THE_ANSWER_IS_PT2 + part2( getData() ) );
+        Answers.print( 1, () -> part1( getData() ) );
+        Answers.print( 2, () -> part2( getData() ) );
     }
 
     /**
@@ -15,6 +15,8 @@ import java.util.Set;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
+import utils.TokenPool;
 
 
 /**
@@ -63,6 +65,13 @@ public class Day7
 {
 
     public static final String TARGET_COLOUR = "shiny gold";
+    private static final String BAGS_CONTAIN = " bags contain ";
+    private static final String NO_OTHER_BAGS = "no other bags";
+    private static final String BAG = " bag";
+    private static final String CHILD_SEPARATOR = ", ";
+
+    // Canonical instances of the colours (and quantities), shared by all the rules
+    private final TokenPool tokenPool = new TokenPool();
 
     /**
      * Constructor
@@ -72,8 +81,8 @@ public class Day7
         // Check the logic with the example before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1( getData() ) );
-        System.out.println( THE_ANSWER_IS_PT2 + part2( getData() ) );
+        Answers.print( 1, () -> part1( getData() ) );
+        Answers.print( 2, () -> part2( getData() ) );
     }
 
     /**
@@ -300,6 +309,9 @@ public class Day7
 
     /**
      * Iterates through the rules to build the bag rules
+     * <p>
+     * Each rule is read in place (rather than split up) so that every colour goes through the {@link TokenPool};
+     * a colour that's already been seen costs no new String, and all the rules share the same colour instances.
      *
      * @param data the data containing the rules
      * @return map of bag colours and contents
@@ -309,34 +321,30 @@ public class Day7
         final Map<String, List<String[]>> rulesMap = new HashMap<>();
         for ( final String bagRule : data )
         {
-            // Remove the words 'bag' or 'bags'
-            final String removeBags = bagRule.replaceAll( "\\b(bag|bags)\\b|\\.", EMPTY_STRING );
-
-            // Separate the parent from the children via a split on the word 'contain'
-            final List<String> list = Arrays.asList( removeBags.split( "contain" ) );
+            // Separate the parent from the children via the words 'bags contain'
+            final int parentEnd = bagRule.indexOf( BAGS_CONTAIN );
+            final String key = tokenPool.intern( bagRule, 0, parentEnd );
+            int position = parentEnd + BAGS_CONTAIN.length();
 
-            // This means we now have parent/child (key/value)
-            final String key = list.get( 0 );
-            final String value = list.get( 1 );
-
-            // With all other noise gone, each child can be found via a separating comma
-            final String[] rules = value.split( COMMA );
-
-            // Now we'll count how many bags of each colour there are by splitting via whitespace
+            // Each child is a quantity and a colour, followed by 'bag' or 'bags' and then a comma or full stop
             final List<String[]> colourList = new ArrayList<>();
-            for ( final String rule : rules )
+            if ( !bagRule.startsWith( NO_OTHER_BAGS, position ) )
             {
-                final String trimmed = rule.trim();
-                if ( !trimmed.equals( "no other" ) )
+                while ( position < bagRule.length() )
                 {
-                    final String qty = trimmed.substring( 0, trimmed.indexOf( ' ' ) );
-                    final String color = trimmed.substring( trimmed.indexOf( ' ' ) + 1 );
+                    final int qtyEnd = bagRule.indexOf( ' ', position );
+                    final int colourEnd = bagRule.indexOf( BAG, qtyEnd );
+                    final String qty = tokenPool.intern( bagRule, position, qtyEnd );
+                    final String color = tokenPool.intern( bagRule, qtyEnd + 1, colourEnd );
                     colourList.add( new String[]{ qty, color } );
+
+                    final int nextChild = bagRule.indexOf( CHILD_SEPARATOR, colourEnd );
+                    position = nextChild < 0 ? bagRule.length() : nextChild + CHILD_SEPARATOR.length();
                 }
             }
 
             // Add the value to the list
-            rulesMap.put( key.trim(), colourList );
+            rulesMap.put( key, colourList );
         }
 
         return rulesMap;
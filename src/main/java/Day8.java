@@ -14,6 +14,8 @@ import java.util.Map;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
+import utils.TokenPool;
 
 
 /**
@@ -84,8 +86,8 @@ public class Day8
         // Check the logic with the example before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1( getData() ) );
-        System.out.println( THE_ANSWER_IS_PT2 + part2( getData() ) );
+        Answers.print( 1, () -> part1( getData() ) );
+        Answers.print( 2, () -> part2( getData() ) );
     }
 
     /**
@@ -345,6 +347,12 @@ public class Day8
      */
     static class Instruction
     {
+        // The op codes, in the same order as the Actions so that each ID is also the Action's ordinal
+        private static final TokenPool OP_CODES = new TokenPool( "acc", "jmp", "nop" );
+
+        // Action.values() creates a new array on every call, so look the Actions up in this one
+        private static final Action[] ACTIONS = Action.values();
+
         private Action action;
         private final char change;
         private final int value;
@@ -354,10 +362,16 @@ public class Day8
          */
         public Instruction( final String item )
         {
-            final String[] instruction = item.split( SINGLE_SPACE );
-            this.action = Action.valueOf( instruction[ 0 ].toUpperCase() );
-            this.change = instruction[ 1 ].substring( 0, 1 ).toCharArray()[ 0 ];
-            this.value = Integer.parseInt( instruction[ 1 ].substring( 1 ) );
+            // The op code is looked up in place, rather than split out and upper-cased for every line
+            final int separator = item.indexOf( SINGLE_SPACE );
+            final int opCode = OP_CODES.find( item, 0, separator );
+            if ( opCode < 0 )
+            {
+                throw new IllegalArgumentException( "Unknown operation: " + item );
+            }
+            this.action = ACTIONS[ opCode ];
+            this.change = item.charAt( separator + 1 );
+            this.value = Integer.parseInt( item.substring( separator + 2 ) );
         }
 
         /**
@@ -12,6 +12,7 @@ import java.util.List;
 
 import exception.AnswerNotAvailableException;
 import utils.AOCUtils;
+import utils.Answers;
 
 
 /**
@@ -84,8 +85,8 @@ public class Day9
         // Check the logic with the example before calculating answers
         testLogic();
 
-        System.out.println( THE_ANSWER_IS_PT1 + part1( getData(), 25 ) );
-        System.out.println( THE_ANSWER_IS_PT2 + part2( getData(), 25 ) );
+        Answers.print( 1, () -> part1( getData(), 25 ) );
+        Answers.print( 2, () -> part2( getData(), 25 ) );
     }
 
     /**
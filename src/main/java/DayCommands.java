@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.DayCommands
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import utils.AOCUtils;
+
+/**
+ * The command line tools built on a single day's solution, rather than on all of them: streaming Day 1 expenses,
+ * auditing Day 2 password databases and counting Day 3 trees.
+ *
+ * @author chris.jackson
+ */
+public class DayCommands
+{
+    public static final String FOLLOW_OPTION = "--follow";
+    public static final String SEARCH_OPTION = "--search";
+
+    // How often the followed password database is checked for new lines
+    public static final long FOLLOW_INTERVAL_MILLIS = 1000;
+
+    // Where the followed password database's offset and totals are kept, so a re-run carries on from there
+    public static final String FOLLOW_STATE_EXTENSION = ".audit";
+
+    // The most slopes listed for the fewest/most trees
+    public static final int SLOPES_LISTED = 10;
+
+    /**
+     * Validates a password database, either once or (with '--follow') as lines are appended to it
+     *
+     * @param arguments the optional '--follow', then the optional password database file
+     */
+    public static void passwords( final List<String> arguments )
+    {
+        if ( !arguments.isEmpty() && arguments.get( 0 ).equals( FOLLOW_OPTION ) )
+        {
+            followPasswords( arguments.subList( 1, arguments.size() ) );
+        }
+        else
+        {
+            auditPasswords( arguments );
+        }
+    }
+
+    /**
+     * Counts the trees on the Day 3 part 2 slopes or (with '--search') finds the slopes with the fewest/most trees
+     *
+     * @param arguments the optional '--search' and its limits, then the optional map file
+     */
+    public static void trees( final List<String> arguments )
+    {
+        if ( !arguments.isEmpty() && arguments.get( 0 ).equals( SEARCH_OPTION ) )
+        {
+            searchSlopes( arguments.subList( 1, arguments.size() ) );
+        }
+        else
+        {
+            countTrees( arguments );
+        }
+    }
+
+    /**
+     * Reads expense entries from the console until two of them sum to the target (2020, unless one is given)
+     *
+     * @param arguments the optional target
+     */
+    public static void stream( final List<String> arguments )
+    {
+        final int target = arguments.isEmpty() ? Day1.TARGET_SUM : parseNonNegative( arguments.get( 0 ) );
+        if ( target < 0 )
+        {
+            System.out.println( "Usage: " + AdventOfCode.STREAM_COMMAND + " [target] (a whole number, at least 0)" );
+            return;
+        }
+        try
+        {
+            final Day1.StreamingPairDetector detector =
+                    Day1.findPairInStream( new BufferedReader( new InputStreamReader( System.in ) ), target );
+            if ( detector.getPair() == null )
+            {
+                System.out.println( "No pair found in " + detector.getConsumed() + " entries" );
+            }
+            else
+            {
+                System.out.println( "Pair " + Arrays.toString( detector.getPair() ) + " found after "
+                        + detector.getConsumed() + " entries; the product is " + Day1.product( detector.getPair() ) );
+            }
+            if ( detector.getSkipped() > 0 )
+            {
+                System.out.println( "(" + detector.getSkipped() + " malformed lines were skipped)" );
+            }
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Validates a password database file (the Day 2 input, unless one is given) against both Day 2 policies
+     *
+     * @param arguments the optional password database file
+     */
+    private static void auditPasswords( final List<String> arguments )
+    {
+        final Path file = arguments.isEmpty()
+                          ? AOCUtils.getResourcePath( Day2.class.getName() )
+                          : Paths.get( arguments.get( 0 ) );
+        try
+        {
+            final long start = System.nanoTime();
+            final Day2.PasswordAudit[] audits =
+                    Day2.evaluateInParallel( file, Day2.NO_SAMPLE, Day2.FREQUENCY_POLICY, Day2.POSITION_POLICY );
+            final long nanoseconds = System.nanoTime() - start;
+
+            for ( int i = 0; i < audits.length; i++ )
+            {
+                System.out.println( "Part " + ( i + 1 ) + " policy: " + audits[ i ].getCorrect() + " valid, "
+                        + audits[ i ].getIncorrect() + " invalid" );
+            }
+            System.out.printf( "(took %.3f ms)%n", nanoseconds / 1_000_000.0 );
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Validates the lines appended to a password database file against both Day 2 policies, until the process is
+     * stopped, printing the running totals after each new batch of lines
+     * <p>
+     * The file must be given: its state is saved alongside it, which for the Day 2 input would be the build output.
+     *
+     * @param arguments the password database file
+     */
+    private static void followPasswords( final List<String> arguments )
+    {
+        if ( arguments.isEmpty() )
+        {
+            System.out.println( "Usage: " + AdventOfCode.PASSWORDS_COMMAND + " " + FOLLOW_OPTION + " <file>" );
+            return;
+        }
+        final Path file = Paths.get( arguments.get( 0 ) );
+        final Path stateFile = Paths.get( file + FOLLOW_STATE_EXTENSION );
+        final Day2.PasswordLog log = new Day2.PasswordLog( file, Day2.FREQUENCY_POLICY, Day2.POSITION_POLICY );
+        try
+        {
+            log.load( stateFile );
+            System.out.println( "Following " + file.toAbsolutePath() + " from byte " + log.getOffset()
+                    + " (Ctrl+C to stop)" );
+            while ( true )
+            {
+                if ( log.update() > 0 )
+                {
+                    final Day2.PasswordAudit[] totals = log.getTotals();
+                    for ( int i = 0; i < totals.length; i++ )
+                    {
+                        System.out.println( "Part " + ( i + 1 ) + " policy: " + totals[ i ].getCorrect() + " valid, "
+                                + totals[ i ].getIncorrect() + " invalid" );
+                    }
+                    log.save( stateFile );
+                }
+                Thread.sleep( FOLLOW_INTERVAL_MILLIS );
+            }
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counts the trees on each of the Day 3 part 2 slopes, reading the map a row at a time from the file (or from
+     * the console, if no file is given)
+     *
+     * @param arguments the optional map file
+     */
+    private static void countTrees( final List<String> arguments )
+    {
+        try ( final BufferedReader reader = arguments.isEmpty()
+                                            ? new BufferedReader( new InputStreamReader( System.in ) )
+                                            : Files.newBufferedReader( Paths.get( arguments.get( 0 ) ) ) )
+        {
+            final long[] treeCounts = Day3.countTrees( reader, Day3.PART_2_SLOPES );
+            for ( int i = 0; i < treeCounts.length; i++ )
+            {
+                System.out.println( Day3.PART_2_SLOPES.get( i ) + ": " + treeCounts[ i ] + " trees" );
+            }
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Finds the slopes with the fewest and most trees on a map (the Day 3 input, unless a file is given)
+     *
+     * @param arguments the furthest right and down of the slopes to try, then the optional map file
+     */
+    private static void searchSlopes( final List<String> arguments )
+    {
+        final int maxRight = arguments.size() < 2 ? 0 : parsePositive( arguments.get( 0 ) );
+        final int maxDown = arguments.size() < 2 ? 0 : parsePositive( arguments.get( 1 ) );
+        if ( maxRight < 1 || maxDown < 1 )
+        {
+            System.out.println( "Usage: " + AdventOfCode.TREES_COMMAND + " " + SEARCH_OPTION
+                    + " <max right> <max down> [file] (both at least 1)" );
+            return;
+        }
+        final Path file = arguments.size() > 2
+                          ? Paths.get( arguments.get( 2 ) )
+                          : AOCUtils.getResourcePath( Day3.class.getName() );
+        try
+        {
+            final Day3.Forest mapOfTrees = new Day3.Forest( Files.readAllLines( file ) );
+            if ( mapOfTrees.getWidth() == 0 )
+            {
+                System.out.println( "No map found in " + file );
+                return;
+            }
+            final long start = System.nanoTime();
+            final Day3.SlopeSearch search =
+                    Day3.searchSlopes( mapOfTrees, maxRight, maxDown, ForkJoinPool.commonPool() );
+            final long nanoseconds = System.nanoTime() - start;
+
+            printSlopes( "Fewest", search, search.getFewest() );
+            printSlopes( "Most", search, search.getMost() );
+            System.out.printf( "(%d slopes took %.3f ms)%n", ( long ) maxRight * maxDown, nanoseconds / 1_000_000.0 );
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @param argument the argument to parse
+     * @return the argument as a number, or -1 if it isn't a number that's at least 0
+     */
+    private static int parseNonNegative( final String argument )
+    {
+        try
+        {
+            return Math.max( -1, Integer.parseInt( argument ) );
+        }
+        catch ( final NumberFormatException e )
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * @param argument the argument to parse
+     * @return the argument as a number, or 0 if it isn't a positive number
+     */
+    private static int parsePositive( final String argument )
+    {
+        try
+        {
+            return Math.max( 0, Integer.parseInt( argument ) );
+        }
+        catch ( final NumberFormatException e )
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Prints the first few of the slopes found by a search
+     *
+     * @param description what the slopes have (e.g. 'Most')
+     * @param search      the search
+     * @param slopes      the slopes
+     */
+    private static void printSlopes( final String description,
+                                     final Day3.SlopeSearch search,
+                                     final List<Day3.Slope> slopes )
+    {
+        if ( slopes.isEmpty() )
+        {
+            System.out.println( description + " trees: no slopes searched" );
+            return;
+        }
+        System.out.println( description + " trees (" + search.getTreeCount( slopes.get( 0 ) ) + "), on "
+                + slopes.size() + " slope(s):" );
+        for ( final Day3.Slope slope : slopes.subList( 0, Math.min( SLOPES_LISTED, slopes.size() ) ) )
+        {
+            System.out.println( "    " + slope );
+        }
+        if ( slopes.size() > SLOPES_LISTED )
+        {
+            System.out.println( "    ... and " + ( slopes.size() - SLOPES_LISTED ) + " more" );
+        }
+    }
+}
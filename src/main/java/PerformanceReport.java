@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.PerformanceReport
+ */
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import exception.AnswerNotAvailableException;
+import utils.Answers;
+
+/**
+ * Static HTML performance report.
+ * <p>
+ * Runs each day, recording the time, allocation, peak heap growth and answer of each part. Each run is appended to a
+ * history file, and the whole history is rendered into a single self-contained HTML page (tables and inline SVG
+ * charts; no scripts or external files), so the trends can be followed from run to run.
+ * <p>
+ * The report is written to the 'aoc-report' directory, unless '-Daoc.report=<directory>' is given.
+ *
+ * @author chris.jackson
+ */
+public class PerformanceReport
+{
+    public static final String REPORT_DIRECTORY_PROPERTY = "aoc.report";
+    public static final String DEFAULT_REPORT_DIRECTORY = "aoc-report";
+    public static final String HISTORY_FILE = "history.tsv";
+    public static final String REPORT_FILE = "index.html";
+
+    // How many of the most recent runs are drawn in each trend line
+    private static final int TREND_RUNS = 20;
+
+    private static final String TAB = "\t";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    /**
+     * The measurements for one part of one day, in one run
+     */
+    static class Result
+    {
+        final String run;
+        final String day;
+        final int part;
+        final long nanoseconds;
+        final long allocatedBytes;
+        final long peakHeapGrowthBytes;
+        final String answer;
+
+        /**
+         * Constructor
+         *
+         * @param run                 when the run started (identifies the run)
+         * @param day                 the day number
+         * @param part                the question part
+         * @param nanoseconds         how long the part took
+         * @param allocatedBytes      how many bytes the part allocated
+         * @param peakHeapGrowthBytes how far the heap usage rose above its (collected) starting point while the
+         *                            part ran
+         * @param answer              the part's answer
+         */
+        Result( final String run,
+                final String day,
+                final int part,
+                final long nanoseconds,
+                final long allocatedBytes,
+                final long peakHeapGrowthBytes,
+                final String answer )
+        {
+            this.run = run;
+            this.day = day;
+            this.part = part;
+            this.nanoseconds = nanoseconds;
+            this.allocatedBytes = allocatedBytes;
+            this.peakHeapGrowthBytes = peakHeapGrowthBytes;
+            this.answer = answer;
+        }
+
+        /**
+         * @return this result as a line of the history file
+         */
+        String toHistoryLine()
+        {
+            return String.join( TAB, run, day, String.valueOf( part ), String.valueOf( nanoseconds ),
+                    String.valueOf( allocatedBytes ), String.valueOf( peakHeapGrowthBytes ),
+                    answer.replaceAll( "\\s", " " ) );
+        }
+
+        /**
+         * @param line a line of the history file
+         * @return the result, or null if the line isn't a valid result
+         */
+        static Result fromHistoryLine( final String line )
+        {
+            final String[] fields = line.split( TAB, 7 );
+            if ( fields.length != 7 )
+            {
+                return null;
+            }
+            try
+            {
+                return new Result( fields[ 0 ], fields[ 1 ], Integer.parseInt( fields[ 2 ] ),
+                        Long.parseLong( fields[ 3 ] ), Long.parseLong( fields[ 4 ] ), Long.parseLong( fields[ 5 ] ),
+                        fields[ 6 ] );
+            }
+            catch ( final NumberFormatException e )
+            {
+                return null;
+            }
+        }
+
+        /**
+         * @return the key identifying the day and part, e.g. "7.2"
+         */
+        String getKey()
+        {
+            return day + "." + part;
+        }
+    }
+
+    /**
+     * Runs the given days (or all of them, if none are given), then writes the history and the report
+     *
+     * @param days the days to report on, e.g. "1", "7"
+     */
+    public static void run( final List<String> days )
+    {
+        final Path directory = Paths.get( System.getProperty( REPORT_DIRECTORY_PROPERTY, DEFAULT_REPORT_DIRECTORY ) );
+        // To the millisecond, so that runs started within the same second are still told apart
+        final String run = new SimpleDateFormat( "yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT ).format( new Date() );
+
+        final List<String> daysToRun = new ArrayList<>( days );
+        if ( daysToRun.isEmpty() )
+        {
+            for ( int day = 1; day <= 15; day++ )
+            {
+                daysToRun.add( String.valueOf( day ) );
+            }
+        }
+
+        // Why (value) each day (key) that failed did so; the rest of the run is still measured and recorded
+        final Map<String, String> failures = new LinkedHashMap<>();
+        final List<Result> results = new ArrayList<>();
+        for ( final String day : daysToRun )
+        {
+            System.out.println( "--> Day " + day );
+            results.addAll( measureDay( run, day, failures ) );
+        }
+
+        try
+        {
+            Files.createDirectories( directory );
+            final Path historyFile = directory.resolve( HISTORY_FILE );
+            final List<String> lines = new ArrayList<>();
+            for ( final Result result : results )
+            {
+                lines.add( result.toHistoryLine() );
+            }
+            Files.write( historyFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND );
+
+            final Path reportFile = directory.resolve( REPORT_FILE );
+            Files.write( reportFile,
+                    renderReport( readHistory( historyFile ), failures ).getBytes( StandardCharsets.UTF_8 ) );
+            System.out.println( "Report written to " + reportFile.toAbsolutePath() );
+            for ( final Map.Entry<String, String> failure : failures.entrySet() )
+            {
+                System.out.println( "Day " + failure.getKey() + " failed: " + failure.getValue() );
+            }
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs the day, measuring each part as it's answered
+     *
+     * @param run      the run the results belong to
+     * @param day      the day to run
+     * @param failures filled in with why (value) the day (key) failed, if it did
+     * @return the result of each part that produced an answer
+     */
+    private static List<Result> measureDay( final String run, final String day, final Map<String, String> failures )
+    {
+        final List<Result> results = new ArrayList<>();
+        final long[] baseline = { resetPeakHeap() };
+        Answers.setListener( ( part, answer, nanoseconds, allocatedBytes ) -> {
+            // A part that shares the pass of the part before it has nothing of its own to measure
+            final long peakHeapGrowthBytes = nanoseconds == Answers.NOT_MEASURED
+                                             ? Answers.NOT_MEASURED
+                                             : Math.max( 0, getPeakHeapBytes() - baseline[ 0 ] );
+            results.add( new Result( run, day, part, nanoseconds, allocatedBytes, peakHeapGrowthBytes,
+                    String.valueOf( answer ) ) );
+
+            // Start afresh for the next part
+            baseline[ 0 ] = resetPeakHeap();
+        } );
+
+        try
+        {
+            AdventOfCode.runDay( day );
+        }
+        catch ( final AnswerNotAvailableException e )
+        {
+            System.out.println( "No answer available for this question!" );
+        }
+        catch ( final RuntimeException | AssertionError e )
+        {
+            // One broken day shouldn't lose the measurements of every other day in the run
+            System.out.println( "Day " + day + " failed: " + e );
+            failures.put( day, e.toString() );
+        }
+        finally
+        {
+            Answers.setListener( null );
+        }
+        return results;
+    }
+
+    /**
+     * @return the sum of the peak usage of each heap memory pool since the peaks were last reset
+     */
+    private static long getPeakHeapBytes()
+    {
+        long peak = 0;
+        for ( final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() )
+        {
+            if ( pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null )
+            {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Collects the garbage, then resets the peak usage of each heap memory pool to its current usage, so that the
+     * peaks that follow only count what's allocated from here on (and not whatever was left over from before)
+     *
+     * @return the sum of the usage of each heap memory pool after the collection, to measure the peaks against
+     */
+    private static long resetPeakHeap()
+    {
+        System.gc();
+        long used = 0;
+        for ( final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() )
+        {
+            if ( pool.getType() == MemoryType.HEAP )
+            {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * @param historyFile the history file
+     * @return every result in the history, oldest first
+     * @throws IOException if the file can't be read
+     */
+    private static List<Result> readHistory( final Path historyFile ) throws IOException
+    {
+        final List<Result> history = new ArrayList<>();
+        for ( final String line : Files.readAllLines( historyFile, StandardCharsets.UTF_8 ) )
+        {
+            final Result result = Result.fromHistoryLine( line );
+            if ( result != null )
+            {
+                history.add( result );
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Renders the report page: a table and chart of the latest run, and a trend line of each part's history
+     *
+     * @param history  every result, oldest first
+     * @param failures why (value) each day (key) that failed in the latest run did so
+     * @return the HTML page
+     */
+    static String renderReport( final List<Result> history, final Map<String, String> failures )
+    {
+        // The latest result for each day/part (in the order they were run) and the history of each
+        final Map<String, Result> latest = new LinkedHashMap<>();
+        final Map<String, List<Result>> trends = new LinkedHashMap<>();
+        for ( final Result result : history )
+        {
+            latest.remove( result.getKey() );
+            latest.put( result.getKey(), result );
+            trends.computeIfAbsent( result.getKey(), k -> new ArrayList<>() ).add( result );
+        }
+
+        long slowest = 1;
+        for ( final Result result : latest.values() )
+        {
+            slowest = Math.max( slowest, result.nanoseconds );
+        }
+
+        final StringBuilder html = new StringBuilder();
+        html.append( "<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n" )
+                .append( "<title>Advent of Code 2020 - Performance Report</title>\n" )
+                .append( "<style>\n" )
+                .append( "body { font-family: sans-serif; margin: 2em; color: #222; }\n" )
+                .append( "table { border-collapse: collapse; }\n" )
+                .append( "th, td { border: 1px solid #ccc; padding: 4px 8px; text-align: right; }\n" )
+                .append( "th { background: #eee; }\n" )
+                .append( "td.text { text-align: left; font-family: monospace; }\n" )
+                .append( "</style>\n</head>\n<body>\n" )
+                .append( "<h1>Advent of Code 2020 - Performance Report</h1>\n" );
+
+        if ( !failures.isEmpty() )
+        {
+            html.append( "<p>Failed in the latest run:</p>\n<ul>\n" );
+            for ( final Map.Entry<String, String> failure : failures.entrySet() )
+            {
+                html.append( "<li>Day " ).append( escape( failure.getKey() ) ).append( ": " )
+                        .append( escape( failure.getValue() ) ).append( "</li>\n" );
+            }
+            html.append( "</ul>\n" );
+        }
+
+        if ( latest.isEmpty() )
+        {
+            return html.append( "<p>No results yet.</p>\n</body>\n</html>\n" ).toString();
+        }
+
+        html.append( "<p>Latest results (" ).append( history.size() ).append( " results recorded)</p>\n" );
+
+        html.append( "<table>\n<tr><th>Day</th><th>Part</th><th>Run</th><th>Time (ms)</th>" )
+                .append( "<th>Allocated (MB)</th><th>Peak heap growth (MB)</th><th>Answer</th>" )
+                .append( "<th>Time (ms), last " ).append( TREND_RUNS ).append( " runs</th><th>Time</th></tr>\n" );
+        for ( final Result result : latest.values() )
+        {
+            html.append( "<tr><td>" ).append( escape( result.day ) ).append( "</td>" )
+                    .append( "<td>" ).append( result.part ).append( "</td>" )
+                    .append( "<td class=\"text\">" ).append( escape( result.run ) ).append( "</td>" )
+                    .append( "<td>" ).append( formatTime( result.nanoseconds ) ).append( "</td>" )
+                    .append( "<td>" ).append( formatBytes( result.allocatedBytes ) ).append( "</td>" )
+                    .append( "<td>" ).append( formatBytes( result.peakHeapGrowthBytes ) ).append( "</td>" )
+                    .append( "<td class=\"text\">" ).append( escape( result.answer ) ).append( "</td>" )
+                    .append( "<td>" ).append( renderTrend( trends.get( result.getKey() ) ) ).append( "</td>" )
+                    .append( "<td class=\"text\">" )
+                    .append( result.nanoseconds == Answers.NOT_MEASURED
+                             ? ""
+                             : renderBar( result.nanoseconds, slowest ) )
+                    .append( "</td></tr>\n" );
+        }
+        html.append( "</table>\n</body>\n</html>\n" );
+        return html.toString();
+    }
+
+    /**
+     * @param nanoseconds the time to draw
+     * @param slowest     the slowest time in the table (drawn full width)
+     * @return an inline SVG bar for the time
+     */
+    private static String renderBar( final long nanoseconds, final long slowest )
+    {
+        final int width = 200;
+        final int height = 14;
+        final double barWidth = Math.max( 1, width * ( double ) nanoseconds / slowest );
+        return String.format( Locale.ROOT, "<svg width=\"%d\" height=\"%d\"><rect width=\"%.1f\" height=\"%d\" "
+                + "fill=\"#4a7ebb\"/></svg>", width, height, barWidth, height );
+    }
+
+    /**
+     * @param results the history of a single day/part, oldest first
+     * @return an inline SVG line of the most recent times, labelled with the range
+     */
+    private static String renderTrend( final List<Result> results )
+    {
+        // Parts that share another part's pass have no times to draw
+        final List<Result> measured = new ArrayList<>();
+        for ( final Result result : results )
+        {
+            if ( result.nanoseconds != Answers.NOT_MEASURED )
+            {
+                measured.add( result );
+            }
+        }
+        if ( measured.isEmpty() )
+        {
+            return "";
+        }
+
+        final List<Result> recent = measured.subList( Math.max( 0, measured.size() - TREND_RUNS ), measured.size() );
+        final int width = 160;
+        final int height = 30;
+
+        long minimum = Long.MAX_VALUE;
+        long maximum = 0;
+        for ( final Result result : recent )
+        {
+            minimum = Math.min( minimum, result.nanoseconds );
+            maximum = Math.max( maximum, result.nanoseconds );
+        }
+        final double range = Math.max( 1, maximum - minimum );
+
+        final StringBuilder points = new StringBuilder();
+        double x = 0;
+        double y = 0;
+        for ( int i = 0; i < recent.size(); i++ )
+        {
+            x = recent.size() == 1 ? width / 2.0 : i * ( width - 4.0 ) / ( recent.size() - 1 ) + 2;
+            y = height - 2 - ( recent.get( i ).nanoseconds - minimum ) / range * ( height - 4 );
+            points.append( String.format( Locale.ROOT, "%.1f,%.1f ", x, y ) );
+        }
+
+        // The line, with a dot on the latest run and the range of times as a tooltip
+        return String.format( Locale.ROOT, "<svg width=\"%d\" height=\"%d\"><title>%.3f ms - %.3f ms</title>"
+                        + "<polyline points=\"%s\" fill=\"none\" stroke=\"#c0392b\" stroke-width=\"1.5\"/>"
+                        + "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"2\" fill=\"#c0392b\"/></svg>",
+                width, height, minimum / NANOS_PER_MILLI, maximum / NANOS_PER_MILLI, points.toString().trim(), x, y );
+    }
+
+    /**
+     * @param nanoseconds a time
+     * @return the time in milliseconds, or a note that the part shares the pass of the part before it
+     */
+    private static String formatTime( final long nanoseconds )
+    {
+        return nanoseconds == Answers.NOT_MEASURED
+               ? Answers.SHARED_PASS
+               : String.format( Locale.ROOT, "%.3f", nanoseconds / NANOS_PER_MILLI );
+    }
+
+    /**
+     * @param bytes a number of bytes
+     * @return the bytes in megabytes, or "n/a" if they weren't measured
+     */
+    private static String formatBytes( final long bytes )
+    {
+        return bytes < 0 ? "n/a" : String.format( Locale.ROOT, "%.2f", bytes / BYTES_PER_MEGABYTE );
+    }
+
+    /**
+     * @param text the text to put in the page
+     * @return the text with any HTML special characters escaped
+     */
+    private static String escape( final String text )
+    {
+        return text.replace( "&", "&amp;" ).replace( "<", "&lt;" ).replace( ">", "&gt;" )
+                .replace( "\"", "&quot;" );
+    }
+}
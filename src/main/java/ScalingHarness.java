@@ -0,0 +1,723 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.ScalingHarness
+ */
+
+import static constants.Constants.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.DoubleUnaryOperator;
+
+import exception.AnswerNotAvailableException;
+import utils.AOCUtils;
+import utils.Answers;
+
+/**
+ * Empirical complexity report.
+ * <p>
+ * Runs each day's part 1 and part 2 against a doubling series of input sizes, then fits the timings to a few
+ * candidate complexity curves (n, n log n, n^2, n^3) to estimate the order of each part. The idea is to flag the
+ * quadratic (or worse!) solutions before they meet a much bigger data set.
+ * <p>
+ * The inputs are generated for each day, rather than cut down or repeated from the real input (which can lose the
+ * answer, or give it away in the first copy), and each is made to be a worst case for its size: nothing that lets a
+ * search stop early, with the answer at the end. Any size a part couldn't answer is reported with the part. Days
+ * whose work doesn't grow with their input (e.g. Day 5's 1024 seats) are skipped.
+ * <p>
+ * Before any day is timed, a known O(n^2) baseline is put through the same fitting; if it doesn't come out as at
+ * least O(n^2), the timings can't be trusted (e.g. the machine is too busy) and the report stops there.
+ *
+ * @author chris.jackson
+ */
+public class ScalingHarness
+{
+    // The input sizes (in records) to time: doubling from the smallest, while the time budget allows
+    private static final int SMALLEST_RECORDS = 1 << 8;
+    private static final int LARGEST_RECORDS = 1 << 20;
+
+    // Stop growing the input once the next (doubled) size could take longer than this, assuming the worst (n^3)
+    private static final long TIME_BUDGET_NANOS = 2_000_000_000L;
+    private static final int WORST_CASE_GROWTH = 8;
+
+    // Each size is run this many times, keeping the quickest
+    private static final int REPETITIONS = 3;
+
+    // Days whose work is fixed, whatever their input: Day 5's seats are capped at 1024 by the boarding pass format,
+    // Day 13 is a single schedule, and Day 15 plays a fixed number of turns from a handful of starting numbers
+    private static final List<String> UNSCALABLE_DAYS = Arrays.asList( "5", "13", "15" );
+
+    // The sizes to time the baseline at, and the least order it has to be estimated at (O(n^2))
+    private static final int[] BASELINE_SIZES = { 1000, 2000, 4000, 8000, 16000 };
+    private static final int BASELINE_MINIMUM_MODEL = 2;
+
+    private static final String[] MODEL_NAMES = { "O(n)", "O(n log n)", "O(n^2)", "O(n^3)" };
+    private static final DoubleUnaryOperator[] MODELS = {
+            n -> n,
+            n -> n * Math.log( n ),
+            n -> n * n,
+            n -> n * n * n };
+
+    // Day 1's filler entries are non-zero multiples of this (> 2020), so no pair or triple using one sums to 2020
+    private static final int EXPENSE_FILLER_STEP = 2021;
+
+    // The order of Day 9's repeating numbers: each is the sum of two of the other 25, and no run sums to more than 13
+    private static final int[] XMAS_CYCLE = {
+            13, -13, 12, -12, 11, -11, 10, -10, 9, -9, 8, -8, 7, -7, 6, -6, 5, -5, 4, -4, 3, -3, 2, -2, 1, -1 };
+
+    // The width of Day 11's seat layouts (as in the real input; narrower layouts can keep changing forever)
+    private static final int SEAT_COLUMNS = 90;
+
+    private final PrintStream console = System.out;
+
+    // Keeps the baseline's result in use, so its work can't be optimised away
+    private long baselineChecksum;
+
+    /**
+     * Runs the report for the given days (or all of them, if none are given)
+     *
+     * @param days the days to report on, e.g. "1", "7"
+     */
+    public static void run( final List<String> days )
+    {
+        final ScalingHarness harness = new ScalingHarness();
+        if ( !harness.checkBaseline() )
+        {
+            return;
+        }
+
+        final List<String> daysToRun = new ArrayList<>( days );
+        if ( daysToRun.isEmpty() )
+        {
+            for ( int day = 1; day <= 15; day++ )
+            {
+                daysToRun.add( String.valueOf( day ) );
+            }
+        }
+
+        for ( final String day : daysToRun )
+        {
+            harness.reportDay( day );
+        }
+    }
+
+    /**
+     * Times a known O(n^2) baseline, and checks that the fitting estimates it as at least O(n^2)
+     *
+     * @return TRUE if the baseline was estimated correctly, so the days' estimates can be trusted
+     */
+    private boolean checkBaseline()
+    {
+        // Warm up at every size first, so the JIT has had a go before any timings are kept
+        for ( final int size : BASELINE_SIZES )
+        {
+            baselineChecksum += hashPairs( size );
+        }
+
+        final Map<Integer, Long> timings = new TreeMap<>();
+        for ( final int size : BASELINE_SIZES )
+        {
+            long quickest = Long.MAX_VALUE;
+            for ( int i = 0; i < REPETITIONS; i++ )
+            {
+                final long start = System.nanoTime();
+                baselineChecksum += hashPairs( size );
+                quickest = Math.min( quickest, System.nanoTime() - start );
+            }
+            timings.put( size, quickest );
+        }
+
+        if ( estimateModel( timings ) < BASELINE_MINIMUM_MODEL )
+        {
+            console.println( "Self-check FAILED: a known O(n^2) baseline was estimated as " + describe( timings )
+                    + ", so the days' estimates can't be trusted (is the machine busy?)" );
+            return false;
+        }
+        console.println( "Self-check: O(n^2) baseline estimated as " + describe( timings ) );
+        return true;
+    }
+
+    /**
+     * The baseline: hashes every pair of values, so it's O(n^2) whatever the values are. Each pair feeds the next,
+     * so the JIT can't vectorise some sizes and not others, which would skew the timings.
+     *
+     * @param size how many values to pair up
+     * @return the hash of every pair of values
+     */
+    private static long hashPairs( final int size )
+    {
+        final int[] values = new int[ size ];
+        for ( int i = 0; i < size; i++ )
+        {
+            values[ i ] = ( int ) ( i * 2654435761L % size );
+        }
+
+        long hash = 0;
+        for ( int i = 0; i < size; i++ )
+        {
+            for ( int j = i + 1; j < size; j++ )
+            {
+                hash = hash * 31 + ( values[ i ] ^ values[ j ] );
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Times the given day at each input size and prints the estimated order of each part, along with any sizes
+     * the part couldn't answer
+     *
+     * @param day the day to report on
+     */
+    private void reportDay( final String day )
+    {
+        final String resourceName = "day" + day;
+        if ( UNSCALABLE_DAYS.contains( day ) )
+        {
+            console.println( "Day " + day + ": skipped (its work doesn't grow with its input)" );
+            return;
+        }
+        if ( generateInput( day, SMALLEST_RECORDS ) == null )
+        {
+            console.println( "Day " + day + ": skipped (no input generator)" );
+            return;
+        }
+
+        // Part number (key) and the quickest time (value) at each input size (key)
+        final Map<Integer, Map<Integer, Long>> timings = new TreeMap<>();
+
+        // Part number (key) and why it had no answer (value) at each input size (key)
+        final Map<Integer, Map<Integer, String>> failures = new TreeMap<>();
+
+        // The parts whose answer comes out of the pass of the part before, so have no time of their own to fit
+        final Set<Integer> sharedParts = new TreeSet<>();
+
+        // Warm up at the smallest size, so the JIT has had a go before any timings are kept
+        timeRun( day, resourceName, generateInput( day, SMALLEST_RECORDS ), new HashMap<>() );
+
+        for ( int size = SMALLEST_RECORDS; size <= LARGEST_RECORDS; size *= 2 )
+        {
+            final Map<Integer, String> partFailures = new HashMap<>();
+            final Map<Integer, Long> partTimes =
+                    timeRun( day, resourceName, generateInput( day, size ), partFailures );
+            long slowest = 0;
+            for ( final Map.Entry<Integer, Long> partTime : partTimes.entrySet() )
+            {
+                if ( partTime.getValue() == Answers.NOT_MEASURED )
+                {
+                    sharedParts.add( partTime.getKey() );
+                    continue;
+                }
+                timings.computeIfAbsent( partTime.getKey(), k -> new TreeMap<>() ).put( size, partTime.getValue() );
+                slowest = Math.max( slowest, partTime.getValue() );
+            }
+            for ( final Map.Entry<Integer, String> partFailure : partFailures.entrySet() )
+            {
+                failures.computeIfAbsent( partFailure.getKey(), k -> new TreeMap<>() )
+                        .put( size, partFailure.getValue() );
+            }
+            if ( slowest * WORST_CASE_GROWTH > TIME_BUDGET_NANOS )
+            {
+                break;
+            }
+        }
+
+        for ( int part = 1; part <= 2; part++ )
+        {
+            final String order = sharedParts.contains( part ) ? Answers.SHARED_PASS : describe( timings.get( part ) );
+            console.println( "Day " + day + " part " + part + ": " + order + describeFailures( failures.get( part ) ) );
+        }
+    }
+
+    /**
+     * Runs the day with the given (generated) input
+     *
+     * @param day          the day to run
+     * @param resourceName the name of the day's input
+     * @param data         the input to use in place of the real input
+     * @param failures     filled in with why (value) each part (key) that didn't answer failed
+     * @return the quickest time of each part (key: part number) that produced an answer ({@link
+     * Answers#NOT_MEASURED} for a part that shares the pass of the part before it)
+     */
+    private Map<Integer, Long> timeRun( final String day,
+                                        final String resourceName,
+                                        final List<String> data,
+                                        final Map<Integer, String> failures )
+    {
+        final Map<Integer, Long> quickest = new HashMap<>();
+        AOCUtils.setDataOverride( resourceName, data );
+        Answers.setListener( ( part, answer, nanoseconds, allocatedBytes ) ->
+                quickest.merge( part, nanoseconds, Math::min ) );
+
+        // The solutions print as they go, which isn't wanted here
+        System.setOut( new PrintStream( new OutputStream()
+        {
+            @Override
+            public void write( final int b )
+            {
+            }
+        } ) );
+        String failure = "no answer";
+        try
+        {
+            for ( int i = 0; i < REPETITIONS; i++ )
+            {
+                AdventOfCode.runDay( day );
+            }
+        }
+        catch ( final AnswerNotAvailableException | RuntimeException | StackOverflowError | AssertionError e )
+        {
+            // Keep whatever parts did finish; the ones that didn't are reported with the reason
+            failure = e.getClass().getSimpleName();
+        }
+        finally
+        {
+            System.setOut( console );
+            Answers.setListener( null );
+            AOCUtils.clearDataOverrides();
+        }
+
+        for ( int part = 1; part <= 2; part++ )
+        {
+            if ( !quickest.containsKey( part ) )
+            {
+                failures.put( part, failure );
+            }
+        }
+        return quickest;
+    }
+
+    /**
+     * @param failures why (value) the part had no answer at each input size (key)
+     * @return a description of the failed sizes, or nothing if there weren't any
+     */
+    private String describeFailures( final Map<Integer, String> failures )
+    {
+        if ( failures == null )
+        {
+            return EMPTY_STRING;
+        }
+        final StringBuilder description = new StringBuilder( "; FAILED at " );
+        for ( final Map.Entry<Integer, String> failure : failures.entrySet() )
+        {
+            if ( description.length() > "; FAILED at ".length() )
+            {
+                description.append( ", " );
+            }
+            description.append( "n = " ).append( failure.getKey() ).append( " (" ).append( failure.getValue() )
+                    .append( ")" );
+        }
+        return description.toString();
+    }
+
+    /**
+     * Generates an input of the given size for the day, made to be a worst case for that size
+     *
+     * @param day     the day to generate the input for
+     * @param records how many records (e.g. lines, passports, rules) to generate
+     * @return the input lines, or null if the day has no generator
+     */
+    static List<String> generateInput( final String day, final int records )
+    {
+        switch ( day )
+        {
+            case "1":
+                return generateExpenses( records );
+            case "2":
+                return generatePasswords( records );
+            case "3":
+                return generateTrees( records );
+            case "4":
+                return generatePassports( records );
+            case "6":
+                return generateCustomsAnswers( records );
+            case "7":
+                return generateBagRules( records );
+            case "8":
+                return generateBootCode( records );
+            case "9":
+                return generateXmasData( records );
+            case "10":
+                return generateAdapters( records );
+            case "11":
+                return generateSeats( records );
+            case "12":
+                return generateNavigation( records );
+            case "14":
+                return generateBitmaskProgram( records );
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Day 1: entries of both signs that can't be part of any pair or triple summing to 2020 (so every one of them
+     * is searched), followed by the only pair (1000 + 1020) and triple (500 + 700 + 820) that can
+     */
+    private static List<String> generateExpenses( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records - 5; i++ )
+        {
+            data.add( String.valueOf( ( i / 2 + 1 ) * EXPENSE_FILLER_STEP * ( i % 2 == 0 ? 1 : -1 ) ) );
+        }
+        data.addAll( Arrays.asList( "500", "700", "1000", "820", "1020" ) );
+        return data;
+    }
+
+    /**
+     * Day 2: a mix of passwords that pass and fail each policy; every one has to be checked
+     */
+    private static List<String> generatePasswords( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records; i++ )
+        {
+            final int lower = 1 + i % 3;
+            final StringBuilder password = new StringBuilder();
+            for ( int j = 0; j < 16; j++ )
+            {
+                password.append( ( char ) ( 'a' + ( i * 7 + j * j ) % 26 ) );
+            }
+            data.add( lower + "-" + ( lower + 2 + i % 4 ) + " " + ( char ) ( 'a' + i % 26 ) + ": " + password );
+        }
+        return data;
+    }
+
+    /**
+     * Day 3: a map of the real width, with every slope running all the way down it
+     */
+    private static List<String> generateTrees( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int row = 0; row < records; row++ )
+        {
+            final StringBuilder line = new StringBuilder();
+            for ( int column = 0; column < 31; column++ )
+            {
+                line.append( ( row * 7 + column * 13 ) % 5 == 0 ? '#' : '.' );
+            }
+            data.add( line.toString() );
+        }
+        return data;
+    }
+
+    /**
+     * Day 4: passports with every field present and valid, so none can be rejected early
+     */
+    private static List<String> generatePassports( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records; i++ )
+        {
+            if ( i > 0 )
+            {
+                data.add( EMPTY_STRING );
+            }
+            data.add( String.format( Locale.ROOT, "ecl:gry pid:%09d eyr:%d hcl:#%06x", i, 2020 + i % 11,
+                    i % 0x1000000 ) );
+            data.add( String.format( Locale.ROOT, "byr:%d iyr:%d cid:147 hgt:%dcm", 1920 + i % 83, 2010 + i % 11,
+                    150 + i % 44 ) );
+        }
+        return data;
+    }
+
+    /**
+     * Day 6: groups of three people, each answering a different mix of questions
+     */
+    private static List<String> generateCustomsAnswers( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records; i++ )
+        {
+            if ( i > 0 )
+            {
+                data.add( EMPTY_STRING );
+            }
+            for ( int person = 0; person < 3; person++ )
+            {
+                final StringBuilder answers = new StringBuilder();
+                for ( int question = 0; question < 26; question++ )
+                {
+                    if ( ( i + person * 5 + question * 3 ) % 4 != 0 )
+                    {
+                        answers.append( ( char ) ( 'a' + question ) );
+                    }
+                }
+                data.add( answers.toString() );
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Day 7: half the rules are a chain of bags, each holding the next, that ends with the shiny gold bag (so every
+     * one can eventually hold it, but only one step at a time), and half are a binary tree of bags under it
+     */
+    private static List<String> generateBagRules( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        final int outer = records / 2;
+        for ( int i = 0; i < outer; i++ )
+        {
+            final String inside = i + 1 < outer ? "outer" + ( i + 1 ) + " red" : Day7.TARGET_COLOUR;
+            data.add( "outer" + i + " red bags contain 1 " + inside + " bag." );
+        }
+
+        final int inner = records - outer;
+        for ( int i = 0; i < inner; i++ )
+        {
+            final String colour = i == 0 ? Day7.TARGET_COLOUR : "inner" + i + " blue";
+            if ( i * 2 + 1 >= inner )
+            {
+                data.add( colour + " bags contain no other bags." );
+            }
+            else if ( i * 2 + 2 >= inner )
+            {
+                data.add( colour + " bags contain 1 inner" + ( i * 2 + 1 ) + " blue bag." );
+            }
+            else
+            {
+                data.add( colour + " bags contain 1 inner" + ( i * 2 + 1 ) + " blue bag, 2 inner" + ( i * 2 + 2 )
+                        + " blue bags." );
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Day 8: a loop back to the start from the very last instruction, which is also the only one that fixes it
+     * (swapping any of the others still loops)
+     */
+    private static List<String> generateBootCode( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records - 1; i++ )
+        {
+            data.add( i % 2 == 0 ? "nop +1" : "acc +1" );
+        }
+        data.add( "jmp -" + ( records - 1 ) );
+        return data;
+    }
+
+    /**
+     * Day 9: a repeating run of numbers that are each the sum of two of the 25 before, ending with the only
+     * contiguous set (12, 13, 2) that sums to the invalid number (27) after it
+     */
+    private static List<String> generateXmasData( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records - 4; i++ )
+        {
+            data.add( String.valueOf( XMAS_CYCLE[ i % XMAS_CYCLE.length ] ) );
+        }
+        data.addAll( Arrays.asList( "12", "13", "2", "27" ) );
+        return data;
+    }
+
+    /**
+     * Day 10: adapters alternately 1 and 3 jolts apart, so there's only the one arrangement to find
+     */
+    private static List<String> generateAdapters( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        int joltage = 0;
+        for ( int i = 0; i < records; i++ )
+        {
+            joltage += i % 2 == 0 ? 1 : 3;
+            data.add( String.valueOf( joltage ) );
+        }
+        return data;
+    }
+
+    /**
+     * Day 11: the given number of places (mostly seats, with a scattering of floor) in rows of the real width. The
+     * size counts places rather than rows, as a round of the simulation is slow enough that doubling the rows from
+     * the smallest size would only leave time for a size or two.
+     */
+    private static List<String> generateSeats( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int row = 0; row < Math.max( 1, records / SEAT_COLUMNS ); row++ )
+        {
+            final StringBuilder line = new StringBuilder();
+            for ( int column = 0; column < SEAT_COLUMNS; column++ )
+            {
+                line.append( ( row * 3 + column * 7 ) % 11 == 0 ? '.' : 'L' );
+            }
+            data.add( line.toString() );
+        }
+        return data;
+    }
+
+    /**
+     * Day 12: a repeating mix of every kind of instruction
+     */
+    private static List<String> generateNavigation( final int records )
+    {
+        final String[] instructions = { "F10", "N3", "R90", "F7", "E5", "L180", "S2", "W4", "R270", "F11", "L90" };
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records; i++ )
+        {
+            data.add( instructions[ i % instructions.length ] );
+        }
+        return data;
+    }
+
+    /**
+     * Day 14: a new mask (with 4 floating bits) every 4 lines, writing to addresses that never repeat
+     */
+    private static List<String> generateBitmaskProgram( final int records )
+    {
+        final List<String> data = new ArrayList<>();
+        for ( int i = 0; i < records; i++ )
+        {
+            if ( i % 4 == 0 )
+            {
+                final char[] mask = new char[ 36 ];
+                for ( int bit = 0; bit < mask.length; bit++ )
+                {
+                    mask[ bit ] = ( bit + i ) % 9 == 0 ? 'X' : ( bit + i ) % 3 == 0 ? '1' : '0';
+                }
+                data.add( "mask = " + new String( mask ) );
+            }
+            else
+            {
+                data.add( "mem[" + i + "] = " + ( i * 7919L % 1_000_000 ) );
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Describes the best fit of the timings, along with the raw log-log slope
+     *
+     * @param timings the quickest time (value) at each input size (key)
+     * @return a description of the estimated order
+     */
+    private String describe( final Map<Integer, Long> timings )
+    {
+        if ( timings == null || timings.size() < 3 )
+        {
+            return "too few sizes answered within the time budget to estimate the order";
+        }
+
+        final double[] sizes = getSizes( timings );
+        final double[] times = getTimes( timings );
+        final int count = timings.size();
+        return String.format( Locale.ROOT, "%-10s (log-log slope %.2f, n = %.0f..%.0f, %.3f ms..%.3f ms)",
+                MODEL_NAMES[ estimateModel( timings ) ],
+                logLogSlope( sizes, times ),
+                sizes[ 0 ],
+                sizes[ count - 1 ],
+                times[ 0 ] / 1_000_000,
+                times[ count - 1 ] / 1_000_000 );
+    }
+
+    /**
+     * Fits the timings to each candidate curve
+     *
+     * @param timings the quickest time (value) at each input size (key)
+     * @return the index of the best fitting model
+     */
+    private int estimateModel( final Map<Integer, Long> timings )
+    {
+        final double[] sizes = getSizes( timings );
+        final double[] times = getTimes( timings );
+        final int count = timings.size();
+        // Least squares on the relative error, so the big sizes don't swamp the small ones
+        int bestModel = 0;
+        double bestError = Double.MAX_VALUE;
+        for ( int model = 0; model < MODELS.length; model++ )
+        {
+            double numerator = 0;
+            double denominator = 0;
+            for ( int i = 0; i < count; i++ )
+            {
+                final double ratio = MODELS[ model ].applyAsDouble( sizes[ i ] ) / times[ i ];
+                numerator += ratio;
+                denominator += ratio * ratio;
+            }
+            final double scale = numerator / denominator;
+
+            double error = 0;
+            for ( int i = 0; i < count; i++ )
+            {
+                final double residual = 1 - scale * MODELS[ model ].applyAsDouble( sizes[ i ] ) / times[ i ];
+                error += residual * residual;
+            }
+            if ( error < bestError )
+            {
+                bestError = error;
+                bestModel = model;
+            }
+        }
+
+        return bestModel;
+    }
+
+    /**
+     * @param timings the quickest time (value) at each input size (key)
+     * @return the input sizes, smallest first
+     */
+    private double[] getSizes( final Map<Integer, Long> timings )
+    {
+        final double[] sizes = new double[ timings.size() ];
+        int i = 0;
+        for ( final int size : timings.keySet() )
+        {
+            sizes[ i++ ] = size;
+        }
+        return sizes;
+    }
+
+    /**
+     * @param timings the quickest time (value) at each input size (key)
+     * @return the times, in the same order as the sizes (never less than a nanosecond, for the logs)
+     */
+    private double[] getTimes( final Map<Integer, Long> timings )
+    {
+        final double[] times = new double[ timings.size() ];
+        int i = 0;
+        for ( final long time : timings.values() )
+        {
+            times[ i++ ] = Math.max( 1, time );
+        }
+        return times;
+    }
+
+    /**
+     * The slope of the line of best fit through log(time) against log(size), i.e. the empirical exponent
+     *
+     * @param sizes the input sizes
+     * @param times the time taken at each size
+     * @return the slope
+     */
+    private double logLogSlope( final double[] sizes, final double[] times )
+    {
+        double sumX = 0;
+        double sumY = 0;
+        double sumXY = 0;
+        double sumXX = 0;
+        for ( int i = 0; i < sizes.length; i++ )
+        {
+            final double x = Math.log( sizes[ i ] );
+            final double y = Math.log( times[ i ] );
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        final int n = sizes.length;
+        return ( n * sumXY - sumX * sumY ) / ( n * sumXX - sumX * sumX );
+    }
+}
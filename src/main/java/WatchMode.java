@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.WatchMode
+ */
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import exception.AnswerNotAvailableException;
+import utils.AOCUtils;
+import utils.Answers;
+
+/**
+ * Watches an input directory and re-solves a day as soon as its input file (e.g. 'day7') is saved.
+ * <p>
+ * Only the days whose input actually changed are re-solved; the last input seen for every other day is kept, so
+ * nothing else is re-read or re-run.
+ *
+ * @author chris.jackson
+ */
+public class WatchMode
+{
+    public static final String DEFAULT_DIRECTORY = "src/main/resources";
+
+    // Input files are named after the day, e.g. 'day7'
+    private static final Pattern INPUT_FILE_NAME = Pattern.compile( "day(\\d+)" );
+
+    // Editors tend to fire several events per save, so wait this long for them all to arrive
+    private static final long SETTLE_MILLIS = 20;
+
+    private final Path directory;
+
+    // The last input seen for each day (key: day number)
+    private final Map<String, List<String>> inputCache = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param directory the directory holding the input files
+     */
+    public WatchMode( final Path directory )
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Watches the given directory (or the resources directory, if none is given) until the process is stopped
+     *
+     * @param arguments the optional directory to watch
+     */
+    public static void run( final List<String> arguments )
+    {
+        final Path directory = Paths.get( arguments.isEmpty() ? DEFAULT_DIRECTORY : arguments.get( 0 ) );
+        try
+        {
+            new WatchMode( directory ).watch();
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the current inputs, then re-solves each day whose input changes
+     *
+     * @throws IOException          if the directory can't be read or watched
+     * @throws InterruptedException if interrupted while waiting for a change
+     */
+    public void watch() throws IOException, InterruptedException
+    {
+        try ( final WatchService watchService = FileSystems.getDefault().newWatchService() )
+        {
+            directory.register( watchService, ENTRY_CREATE, ENTRY_MODIFY );
+
+            // Prime the cache, so a save that doesn't change anything doesn't trigger a re-solve
+            try ( final Stream<Path> files = Files.list( directory ) )
+            {
+                files.forEach( file -> hasChanged( file ) );
+            }
+            System.out.println( "Watching " + directory.toAbsolutePath() + " for input changes (Ctrl+C to stop)" );
+
+            while ( true )
+            {
+                WatchKey key = watchService.take();
+
+                // Collect everything that changed in this 'burst' of events, so each day is only solved once
+                final Set<String> changedDays = new TreeSet<>( Comparator.comparingInt( Integer::parseInt ) );
+                while ( key != null )
+                {
+                    for ( final WatchEvent<?> event : key.pollEvents() )
+                    {
+                        if ( event.kind() != OVERFLOW )
+                        {
+                            final Path file = directory.resolve( ( Path ) event.context() );
+                            if ( hasChanged( file ) )
+                            {
+                                changedDays.add( getDay( file ) );
+                            }
+                        }
+                    }
+                    if ( !key.reset() )
+                    {
+                        System.out.println( "No longer able to watch " + directory );
+                        return;
+                    }
+                    key = watchService.poll( SETTLE_MILLIS, TimeUnit.MILLISECONDS );
+                }
+
+                for ( final String day : changedDays )
+                {
+                    solve( day );
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the file is a day's input, and if its content differs from the last content seen for that day
+     *
+     * @param file the file to check
+     * @return TRUE if the file is an input whose content has changed (the cache is updated if so)
+     */
+    private boolean hasChanged( final Path file )
+    {
+        final String day = getDay( file );
+        if ( day == null || !Files.isRegularFile( file ) )
+        {
+            return false;
+        }
+
+        try
+        {
+            final List<String> data = Files.readAllLines( file );
+            if ( data.equals( inputCache.get( day ) ) )
+            {
+                return false;
+            }
+            inputCache.put( day, data );
+            return true;
+        }
+        catch ( final IOException e )
+        {
+            // Most likely caught part way through a save; the next event will pick it up
+            return false;
+        }
+    }
+
+    /**
+     * Re-solves the given day using its cached input, printing the answers and how long each took
+     *
+     * @param day the day to solve
+     */
+    private void solve( final String day )
+    {
+        System.out.println( "--> Day " + day + " input changed" );
+
+        AOCUtils.setDataOverride( "day" + day, inputCache.get( day ) );
+        Answers.setListener( ( part, answer, nanoseconds, allocatedBytes ) ->
+        {
+            if ( nanoseconds == Answers.NOT_MEASURED )
+            {
+                System.out.printf( "    (part %d %s)%n", part, Answers.SHARED_PASS );
+            }
+            else
+            {
+                System.out.printf( "    (part %d took %.3f ms)%n", part, nanoseconds / 1_000_000.0 );
+            }
+        } );
+        try
+        {
+            AdventOfCode.runDay( day );
+        }
+        catch ( final AnswerNotAvailableException e )
+        {
+            System.out.println( "No answer available for this question!" );
+        }
+        catch ( final RuntimeException | AssertionError e )
+        {
+            // A half-written input shouldn't stop the watching
+            System.out.println( "Day " + day + " failed: " + e );
+        }
+        finally
+        {
+            Answers.setListener( null );
+        }
+    }
+
+    /**
+     * @param file the file to check
+     * @return the day number of the input file, or null if it isn't an input file
+     */
+    private String getDay( final Path file )
+    {
+        final Matcher matcher = INPUT_FILE_NAME.matcher( file.getFileName().toString() );
+        return matcher.matches() ? matcher.group( 1 ) : null;
+    }
+}
@@ -6,10 +6,14 @@ package utils;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -20,6 +24,27 @@ import java.util.stream.Stream;
  */
 public class AOCUtils
 {
+    // Data to use in place of a resource (key: lower case resource name), e.g. re-sized data for the scaling harness
+    private static final Map<String, List<String>> dataOverrides = new HashMap<>();
+
+    /**
+     * Use the given data instead of loading the named resource, until {@link #clearDataOverrides()} is called
+     *
+     * @param resourceName name of the resource to replace
+     * @param data         the lines to use instead
+     */
+    public static void setDataOverride( final String resourceName, final List<String> data )
+    {
+        dataOverrides.put( resourceName.toLowerCase(), data );
+    }
+
+    /**
+     * Go back to loading all data from the resources
+     */
+    public static void clearDataOverrides()
+    {
+        dataOverrides.clear();
+    }
 
     /**
      * Get the data for the question
@@ -29,12 +54,17 @@ public class AOCUtils
      */
     public static List<String> getData( final String resourceName )
     {
-        final URL resource = AOCUtils.class.getClassLoader().getResource( resourceName );
+        final List<String> override = dataOverrides.get( resourceName.toLowerCase() );
+        if ( override != null )
+        {
+            // Copy it, as the solutions are free to modify their data
+            return new ArrayList<>( override );
+        }
+
         final List<String> dataStringList = new ArrayList<>();
         try
         {
-            assert resource != null;
-            try ( final Stream<String> stream = Files.lines( Paths.get( resource.getPath() ) ) )
+            try ( final Stream<String> stream = Files.lines( getResourcePath( resourceName ) ) )
             {
                 stream.forEach( dataStringList::add );
             }
@@ -46,6 +76,60 @@ public class AOCUtils
         return dataStringList;
     }
 
+    /**
+     * Get the raw bytes of the data for the question
+     *
+     * @param resourceName name of the resource to load
+     * @return the bytes of the resource (or of its override, one line per '\n')
+     */
+    public static byte[] getBytes( final String resourceName )
+    {
+        final List<String> override = dataOverrides.get( resourceName.toLowerCase() );
+        if ( override != null )
+        {
+            return toBytes( override );
+        }
+
+        try
+        {
+            return Files.readAllBytes( getResourcePath( resourceName ) );
+        }
+        catch ( final IOException e )
+        {
+            e.printStackTrace();
+        }
+        return new byte[ 0 ];
+    }
+
+    /**
+     * Finds the file of the resource for the question (e.g. for tools that need to map or stream it)
+     *
+     * @param resourceName name of the resource to find
+     * @return the path to the resource
+     */
+    public static Path getResourcePath( final String resourceName )
+    {
+        URL resource = AOCUtils.class.getClassLoader().getResource( resourceName );
+        if ( resource == null )
+        {
+            // The resource files are lower case (e.g. 'day1'), which matters on case-sensitive file systems
+            resource = AOCUtils.class.getClassLoader().getResource( resourceName.toLowerCase() );
+        }
+        assert resource != null;
+        return Paths.get( resource.getPath() );
+    }
+
+    /**
+     * Converts a list of lines back into bytes, one line per '\n'
+     *
+     * @param data the lines to convert
+     * @return the UTF-8 bytes of the lines
+     */
+    public static byte[] toBytes( final List<String> data )
+    {
+        return String.join( "\n", data ).getBytes( StandardCharsets.UTF_8 );
+    }
+
     /**
      * Get the data for the question
      *
@@ -57,6 +141,23 @@ public class AOCUtils
         return convertStringListToIntList( getData( resourceName ) );
     }
 
+    /**
+     * Get the data for the question
+     *
+     * @param resourceName name of the resource to load
+     * @return array of primitive int values, each representing a line from the resource
+     */
+    public static int[] getIntArrayData( final String resourceName )
+    {
+        final List<String> data = getData( resourceName );
+        final int[] values = new int[ data.size() ];
+        for ( int i = 0; i < values.length; i++ )
+        {
+            values[ i ] = Integer.parseInt( data.get( i ) );
+        }
+        return values;
+    }
+
     /**
      * Converts a list of String items to a list of Integer items
      * @param data the String list to convert
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.Answers
+ */
+package utils;
+
+import static constants.Constants.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import exception.AnswerNotAvailableException;
+
+/**
+ * Prints the answer to each part of a solution, timing how long each part took to produce its answer (and, where
+ * the JVM supports it, how much memory the part allocated).
+ * <p>
+ * Tools that run the solutions (for example the scaling harness) can register a {@link Listener} to be told about
+ * each answer and its timing as it's produced.
+ *
+ * @author chris.jackson
+ */
+public class Answers
+{
+    public static final long NOT_MEASURED = -1;
+
+    // What a part whose answer came out of the part before's pass is called, in place of its time
+    public static final String SHARED_PASS = "shares part 1's pass";
+
+    private static Listener listener;
+
+    /**
+     * A single part of a solution
+     */
+    @FunctionalInterface
+    public interface Part
+    {
+        /**
+         * @return the answer to the part
+         * @throws AnswerNotAvailableException if no answer could be found
+         */
+        Object solve() throws AnswerNotAvailableException;
+    }
+
+    /**
+     * Notified each time a part produces an answer
+     */
+    @FunctionalInterface
+    public interface Listener
+    {
+        /**
+         * @param part           the question part (1 or 2)
+         * @param answer         the answer produced
+         * @param nanoseconds    how long the part took to produce the answer (or {@link #NOT_MEASURED} if it shares
+         *                       the pass of the part before it)
+         * @param allocatedBytes how many bytes the part allocated (or {@link #NOT_MEASURED})
+         */
+        void answered( int part, Object answer, long nanoseconds, long allocatedBytes );
+    }
+
+    /**
+     * Registers the listener to notify of each answer (or null to stop notifying)
+     *
+     * @param answerListener the listener to notify
+     */
+    public static void setListener( final Listener answerListener )
+    {
+        listener = answerListener;
+    }
+
+    /**
+     * Solves the given part, printing and timing the answer
+     *
+     * @param part   the question part (1 or 2)
+     * @param solver the solution to the part
+     * @throws AnswerNotAvailableException if no answer could be found
+     */
+    public static void print( final int part, final Part solver ) throws AnswerNotAvailableException
+    {
+        final long startAllocated = getAllocatedBytes();
+        final long start = System.nanoTime();
+        final Object answer = solver.solve();
+        final long nanoseconds = System.nanoTime() - start;
+        final long endAllocated = getAllocatedBytes();
+
+        System.out.println( ( part == 1 ? THE_ANSWER_IS_PT1 : THE_ANSWER_IS_PT2 ) + answer );
+
+        if ( listener != null )
+        {
+            final long allocatedBytes = startAllocated == NOT_MEASURED ? NOT_MEASURED : endAllocated - startAllocated;
+            listener.answered( part, answer, nanoseconds, allocatedBytes );
+        }
+    }
+
+    /**
+     * Prints the answer to a part that came out of the same pass as the part before it (e.g. both parts' policies
+     * checked in one pass over the input). The pass has already been timed as the earlier part, so this part has no
+     * time of its own: the listener is told its time and allocation are {@link #NOT_MEASURED}, rather than being
+     * given the near-zero cost of reading the answer back as if that were the part's work.
+     *
+     * @param part   the question part (2)
+     * @param solver the solution to the part, reading its answer from the shared pass
+     * @throws AnswerNotAvailableException if no answer could be found
+     */
+    public static void printShared( final int part, final Part solver ) throws AnswerNotAvailableException
+    {
+        final Object answer = solver.solve();
+
+        System.out.println( ( part == 1 ? THE_ANSWER_IS_PT1 : THE_ANSWER_IS_PT2 ) + answer );
+
+        if ( listener != null )
+        {
+            listener.answered( part, answer, NOT_MEASURED, NOT_MEASURED );
+        }
+    }
+
+    /**
+     * @return the total bytes allocated by this thread so far, or {@link #NOT_MEASURED} if the JVM can't say
+     */
+    private static long getAllocatedBytes()
+    {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if ( listener != null && threadBean instanceof com.sun.management.ThreadMXBean )
+        {
+            return ( ( com.sun.management.ThreadMXBean ) threadBean ).getThreadAllocatedBytes(
+                    Thread.currentThread().getId() );
+        }
+        return NOT_MEASURED;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.SamplingProfiler
+ */
+package utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A very small in-process sampling profiler.
+ * <p>
+ * A daemon thread periodically grabs the stack of the 'solving' thread (via {@link Thread#getStackTrace()}) and
+ * counts each distinct stack. The counts are written in the 'collapsed stack' format used by the standard flame
+ * graph tools (e.g. flamegraph.pl or speedscope), one line per stack:
+ * <p>
+ * frame1;frame2;frame3 count
+ * <p>
+ * The root frame comes first, so the output can be fed straight into the flame graph tooling without any
+ * external agent.
+ *
+ * @author chris.jackson
+ */
+public class SamplingProfiler
+{
+    public static final String COLLAPSED_FILE_EXTENSION = ".collapsed";
+    private static final String FRAME_SEPARATOR = ";";
+
+    // Marks the start of a lambda's generated class name suffix
+    private static final String LAMBDA_MARKER = "$$Lambda";
+
+    // Separates a generated (hidden) class's name from the suffix the JVM gives it
+    private static final char HIDDEN_CLASS_SEPARATOR = '/';
+
+    private final Thread targetThread;
+    private final long intervalMillis;
+
+    // Each distinct collapsed stack (key) and the number of times it was sampled (value)
+    private final Map<String, Integer> stackCounts = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread samplerThread;
+    private int sampleCount;
+
+    /**
+     * Constructor
+     *
+     * @param targetThread   the thread to sample
+     * @param intervalMillis how often (in milliseconds) to sample the target thread
+     */
+    public SamplingProfiler( final Thread targetThread, final long intervalMillis )
+    {
+        this.targetThread = targetThread;
+        this.intervalMillis = Math.max( 1, intervalMillis );
+    }
+
+    /**
+     * Start sampling the target thread
+     */
+    public void start()
+    {
+        running = true;
+        samplerThread = new Thread( this::sample, "aoc-sampling-profiler" );
+        samplerThread.setDaemon( true );
+        samplerThread.start();
+    }
+
+    /**
+     * Stop sampling, waiting for the sampler thread to finish its current sample
+     */
+    public void stop()
+    {
+        running = false;
+        if ( samplerThread != null )
+        {
+            try
+            {
+                samplerThread.join();
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The sampling loop; runs until {@link #stop()} is called or the target thread dies
+     */
+    private void sample()
+    {
+        while ( running && targetThread.isAlive() )
+        {
+            final StackTraceElement[] stack = targetThread.getStackTrace();
+            if ( stack.length > 0 )
+            {
+                synchronized ( stackCounts )
+                {
+                    stackCounts.merge( collapse( stack ), 1, Integer::sum );
+                    sampleCount++;
+                }
+            }
+
+            try
+            {
+                Thread.sleep( intervalMillis );
+            }
+            catch ( final InterruptedException e )
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Converts a stack into a single 'collapsed' line, with the root frame first
+     *
+     * @param stack the stack, as returned by {@link Thread#getStackTrace()} (top frame first)
+     * @return the frames joined by semicolons
+     */
+    private String collapse( final StackTraceElement[] stack )
+    {
+        final StringBuilder collapsed = new StringBuilder();
+        for ( int i = stack.length - 1; i >= 0; i-- )
+        {
+            collapsed.append( frameClassName( stack[ i ] ) ).append( '.' ).append( stack[ i ].getMethodName() );
+            if ( i > 0 )
+            {
+                collapsed.append( FRAME_SEPARATOR );
+            }
+        }
+        return collapsed.toString();
+    }
+
+    /**
+     * Generated class names (e.g. 'Day3$$Lambda$19/0x00007f67cd0031d8') change from run to run, so the generated
+     * part is dropped to let the same stack collapse to the same line every time
+     *
+     * @param frame the frame
+     * @return the name of the frame's class, without any generated suffix
+     */
+    private static String frameClassName( final StackTraceElement frame )
+    {
+        final String className = frame.getClassName();
+        final int lambda = className.indexOf( LAMBDA_MARKER );
+        if ( lambda >= 0 )
+        {
+            return className.substring( 0, lambda + LAMBDA_MARKER.length() );
+        }
+        // Other generated (hidden) classes, e.g. 'java.lang.invoke.LambdaForm$MH/0x0000000800c01000'
+        final int hidden = className.indexOf( HIDDEN_CLASS_SEPARATOR );
+        return hidden < 0 ? className : className.substring( 0, hidden );
+    }
+
+    /**
+     * @return the number of samples taken so far
+     */
+    public int getSampleCount()
+    {
+        synchronized ( stackCounts )
+        {
+            return sampleCount;
+        }
+    }
+
+    /**
+     * Works out the 'hottest' methods, i.e. those found at the top of the most samples
+     *
+     * @param limit the maximum number of methods to return
+     * @return the method names (and their sample counts), hottest first
+     */
+    public List<Map.Entry<String, Integer>> getHotMethods( final int limit )
+    {
+        final Map<String, Integer> selfCounts = new HashMap<>();
+        synchronized ( stackCounts )
+        {
+            for ( final Map.Entry<String, Integer> entry : stackCounts.entrySet() )
+            {
+                final String stack = entry.getKey();
+                final String topFrame = stack.substring( stack.lastIndexOf( FRAME_SEPARATOR ) + 1 );
+                selfCounts.merge( topFrame, entry.getValue(), Integer::sum );
+            }
+        }
+
+        final List<Map.Entry<String, Integer>> hotMethods = new ArrayList<>( selfCounts.entrySet() );
+        hotMethods.sort( ( a, b ) -> b.getValue() - a.getValue() );
+        return hotMethods.subList( 0, Math.min( limit, hotMethods.size() ) );
+    }
+
+    /**
+     * Writes the collapsed stacks to the given file
+     *
+     * @param outputFile the file to write to (any existing file is replaced)
+     * @throws IOException if the file can't be written
+     */
+    public void writeCollapsedStacks( final Path outputFile ) throws IOException
+    {
+        if ( outputFile.getParent() != null )
+        {
+            Files.createDirectories( outputFile.getParent() );
+        }
+        try ( final PrintWriter writer = new PrintWriter(
+                Files.newBufferedWriter( outputFile, StandardCharsets.UTF_8 ) ) )
+        {
+            synchronized ( stackCounts )
+            {
+                for ( final Map.Entry<String, Integer> entry : stackCounts.entrySet() )
+                {
+                    writer.println( entry.getKey() + " " + entry.getValue() );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 16/12/2020 Chris Jackson (c-jack)
+ * adventofcode.TokenPool
+ */
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A symbol table for the repetitive words found in the inputs (bag colours, passport keys, op codes, etc.).
+ * <p>
+ * Each distinct token is given a dense int ID (0, 1, 2...) in the order it's first seen, along with a single
+ * 'canonical' String instance. Tokens are looked up straight from a range of the line being parsed, so a token
+ * that's already in the pool costs no allocation at all - only the first sighting of each token creates a String.
+ * <p>
+ * Using the canonical instances as Map keys also makes lookups cheap, as the hash is cached on the String and
+ * equals() is satisfied by the identity check.
+ *
+ * @author chris.jackson
+ */
+public class TokenPool
+{
+    private static final int NOT_FOUND = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Open addressing table of token IDs (NOT_FOUND = empty slot); always a power of two in size
+    private int[] slots;
+
+    // Indexed by token ID
+    private String[] tokens = new String[ INITIAL_CAPACITY ];
+    private int[] hashes = new int[ INITIAL_CAPACITY ];
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param knownTokens tokens to add up front (they'll be given the IDs 0, 1, 2... in this order)
+     */
+    public TokenPool( final String... knownTokens )
+    {
+        slots = new int[ INITIAL_CAPACITY * 2 ];
+        Arrays.fill( slots, NOT_FOUND );
+        for ( final String token : knownTokens )
+        {
+            idOf( token );
+        }
+    }
+
+    /**
+     * @param token the token
+     * @return the ID of the token, adding it to the pool if it's new
+     */
+    public int idOf( final CharSequence token )
+    {
+        return idOf( token, 0, token.length() );
+    }
+
+    /**
+     * @param source the text containing the token
+     * @param start  the index of the first character of the token
+     * @param end    the index after the last character of the token
+     * @return the ID of the token, adding it to the pool if it's new
+     */
+    public int idOf( final CharSequence source, final int start, final int end )
+    {
+        final int hash = hash( source, start, end );
+        final int slot = findSlot( source, start, end, hash );
+        if ( slots[ slot ] != NOT_FOUND )
+        {
+            return slots[ slot ];
+        }
+        return add( source.subSequence( start, end ).toString(), hash, slot );
+    }
+
+    /**
+     * Looks up a token without adding it to the pool
+     *
+     * @param source the text containing the token
+     * @param start  the index of the first character of the token
+     * @param end    the index after the last character of the token
+     * @return the ID of the token, or -1 if it isn't in the pool
+     */
+    public int find( final CharSequence source, final int start, final int end )
+    {
+        return slots[ findSlot( source, start, end, hash( source, start, end ) ) ];
+    }
+
+    /**
+     * @param token the token
+     * @return the canonical instance of the token, adding it to the pool if it's new
+     */
+    public String intern( final CharSequence token )
+    {
+        final int id = idOf( token );
+        return tokens[ id ];
+    }
+
+    /**
+     * @param source the text containing the token
+     * @param start  the index of the first character of the token
+     * @param end    the index after the last character of the token
+     * @return the canonical instance of the token, adding it to the pool if it's new
+     */
+    public String intern( final CharSequence source, final int start, final int end )
+    {
+        final int id = idOf( source, start, end );
+        return tokens[ id ];
+    }
+
+    /**
+     * @param id the token ID
+     * @return the canonical instance of the token with the given ID
+     */
+    public String get( final int id )
+    {
+        if ( id < 0 || id >= size )
+        {
+            throw new IndexOutOfBoundsException( "No token with ID " + id );
+        }
+        return tokens[ id ];
+    }
+
+    /**
+     * @return the number of distinct tokens in the pool
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Probes the table for the token
+     *
+     * @return the slot holding the token's ID, or the empty slot it should go in if it isn't in the pool
+     */
+    private int findSlot( final CharSequence source, final int start, final int end, final int hash )
+    {
+        int slot = hash & ( slots.length - 1 );
+        while ( slots[ slot ] != NOT_FOUND )
+        {
+            final int id = slots[ slot ];
+            if ( hashes[ id ] == hash && matches( tokens[ id ], source, start, end ) )
+            {
+                return slot;
+            }
+            slot = ( slot + 1 ) & ( slots.length - 1 );
+        }
+        return slot;
+    }
+
+    /**
+     * Adds a new token to the pool, growing the table if it's getting full
+     *
+     * @param token the new token
+     * @param hash  the token's hash
+     * @param slot  the empty slot the token should go in
+     * @return the new token's ID
+     */
+    private int add( final String token, final int hash, final int slot )
+    {
+        if ( size == tokens.length )
+        {
+            tokens = Arrays.copyOf( tokens, size * 2 );
+            hashes = Arrays.copyOf( hashes, size * 2 );
+        }
+        final int id = size++;
+        tokens[ id ] = token;
+        hashes[ id ] = hash;
+        slots[ slot ] = id;
+
+        // Keep the table at most half full, so the probe sequences stay short
+        if ( size * 2 > slots.length )
+        {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Doubles the size of the table, re-inserting every token ID
+     */
+    private void rehash()
+    {
+        slots = new int[ slots.length * 2 ];
+        Arrays.fill( slots, NOT_FOUND );
+        for ( int id = 0; id < size; id++ )
+        {
+            int slot = hashes[ id ] & ( slots.length - 1 );
+            while ( slots[ slot ] != NOT_FOUND )
+            {
+                slot = ( slot + 1 ) & ( slots.length - 1 );
+            }
+            slots[ slot ] = id;
+        }
+    }
+
+    /**
+     * The same hash that {@link String#hashCode()} would give the token, spread so similar tokens don't cluster
+     */
+    private static int hash( final CharSequence source, final int start, final int end )
+    {
+        int hash = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            hash = 31 * hash + source.charAt( i );
+        }
+        return hash ^ ( hash >>> 16 );
+    }
+
+    /**
+     * @return TRUE if the token is the same as the given range of the source
+     */
+    private static boolean matches( final String token, final CharSequence source, final int start, final int end )
+    {
+        if ( token.length() != end - start )
+        {
+            return false;
+        }
+        for ( int i = 0; i < token.length(); i++ )
+        {
+            if ( token.charAt( i ) != source.charAt( start + i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}